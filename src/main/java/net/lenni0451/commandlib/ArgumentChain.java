@@ -1,17 +1,23 @@
 package net.lenni0451.commandlib;
 
+import net.lenni0451.commandlib.contexts.ArgumentLayout;
 import net.lenni0451.commandlib.contexts.ExecutionContext;
 import net.lenni0451.commandlib.exceptions.ArgumentParseException;
 import net.lenni0451.commandlib.exceptions.ChainExecutionException;
 import net.lenni0451.commandlib.exceptions.HandledException;
 import net.lenni0451.commandlib.nodes.ArgumentNode;
 import net.lenni0451.commandlib.nodes.RedirectNode;
+import net.lenni0451.commandlib.utils.Primitive;
 import net.lenni0451.commandlib.utils.StringReader;
+import net.lenni0451.commandlib.utils.Util;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -22,7 +28,8 @@ import java.util.function.Function;
 public class ArgumentChain<E> {
 
     /**
-     * Build a list of all chains for the given argument node.
+     * Build a list of all chains for the given argument node.<br>
+     * Chains sharing a prefix also share the chain objects of the prefix.
      *
      * @param argument The argument node
      * @param <E>      The type of the executor
@@ -33,7 +40,7 @@ public class ArgumentChain<E> {
         List<ArgumentChain<E>> chains = new ArrayList<>();
 
         Map<ArgumentNode<E, ?>, ArgumentChain<E>> branches = new HashMap<>();
-        branches.put(argument, new ArgumentChain<>(argument));
+        branches.put(argument, new ArgumentChain<>(null, argument));
         while (!branches.isEmpty()) {
             Map<ArgumentNode<E, ?>, ArgumentChain<E>> newBranches = new HashMap<>();
             for (Map.Entry<ArgumentNode<E, ?>, ArgumentChain<E>> entry : branches.entrySet()) {
@@ -42,19 +49,17 @@ public class ArgumentChain<E> {
 
                 if (node.executor() != null || node instanceof RedirectNode) {
                     List<String> names = new ArrayList<>();
-                    for (ArgumentNode<E, ?> argumentNode : chain.arguments) {
-                        if (!argumentNode.providesArgument()) continue;
-                        if (names.contains(argumentNode.name())) throw new IllegalArgumentException("Duplicate argument name '" + argumentNode.name() + "' in chain: " + chain);
-                        names.add(argumentNode.name());
+                    for (ArgumentChain<E> link = chain; link != null; link = link.parent) {
+                        if (!link.argument.providesArgument()) continue;
+                        if (names.contains(link.argument.name())) throw new IllegalArgumentException("Duplicate argument name '" + link.argument.name() + "' in chain: " + chain);
+                        names.add(link.argument.name());
                     }
                     chains.add(chain);
                 } else if (node.children().isEmpty()) {
                     throw new IllegalStateException("Chain ended but has no executor: " + chain);
                 }
                 for (ArgumentNode<E, ?> child : node.children()) {
-                    ArgumentChain<E> newChain = new ArgumentChain<>(chain);
-                    newChain.addArgument(child);
-                    newBranches.put(child, newChain);
+                    newBranches.put(child, new ArgumentChain<>(chain, child));
                 }
             }
             branches = newBranches;
@@ -63,93 +68,192 @@ public class ArgumentChain<E> {
         return chains;
     }
 
+    /**
+     * Merge a chain ending with a redirect node with a chain of the redirect target.<br>
+     * The target chain can also end with a redirect node if redirects are nested.
+     *
+     * @param chain1 The chain ending with the redirect node
+     * @param chain2 The target chain
+     * @param <E>    The type of the executor
+     * @return The merged chain
+     * @throws IllegalArgumentException If the first chain does not end with a redirect node or the second chain does not have an executor or redirect
+     */
     public static <E> ArgumentChain<E> merge(final ArgumentChain<E> chain1, final ArgumentChain<E> chain2) {
         if (chain1.getExecutor() != null) throw new IllegalArgumentException("Can not merge chains if the first chain does not end with a redirect node");
-        if (chain2.getExecutor() == null) throw new IllegalArgumentException("Can not merge chains if the second chain does not have an executor");
-        return new ArgumentChain<E>() {
-            @Override
-            public int getLength() {
-                return chain1.getLength() + chain2.getLength();
-            }
-
-            @Override
-            public int[] getWeights() {
-                int[] weights = new int[getLength()];
-                System.arraycopy(chain1.getWeights(), 0, weights, 0, chain1.getLength());
-                System.arraycopy(chain2.getWeights(), 0, weights, chain1.getLength(), chain2.getLength());
-                return weights;
-            }
-
-            @Override
-            public ArgumentNode<E, ?> getArgument(int index) {
-                if (index < chain1.getLength()) return chain1.getArgument(index);
-                return chain2.getArgument(index - chain1.getLength());
-            }
+        if (chain2.getExecutor() == null && !(chain2.getArgument(chain2.getLength() - 1) instanceof RedirectNode)) {
+            throw new IllegalArgumentException("Can not merge chains if the second chain does not have an executor");
+        }
+        return new MergedChain<>(chain1, chain2);
+    }
 
-            @Override
-            public List<MatchedArgument> parse(ExecutionContext<E> executionContext, StringReader reader) {
-                throw new UnsupportedOperationException("Can not parse a merged chain");
-            }
+    /**
+     * Compare the ranking of two chains.<br>
+     * Longer chains rank higher. Chains with the same length are compared by the weights of their arguments, starting with the first argument.<br>
+     * The ranking keys are calculated once per chain, so comparing chains does not allocate.
+     *
+     * @param chain1 The first chain
+     * @param chain2 The second chain
+     * @return A positive number if the first chain ranks higher, a negative number if the second chain ranks higher or 0 if both rank the same
+     */
+    public static int compareRanking(final ArgumentChain<?> chain1, final ArgumentChain<?> chain2) {
+        return compareRankingKeys(chain1.getRankingKey(), chain2.getRankingKey());
+    }
 
-            @Override
-            public void populateArguments(ExecutionContext<E> executionContext, List<MatchedArgument> arguments) {
-                chain1.populateArguments(executionContext, arguments.subList(0, chain1.getLength()));
-                chain2.populateArguments(executionContext, arguments.subList(chain1.getLength(), arguments.size()));
-            }
+    /**
+     * Compare two ranking keys.
+     *
+     * @param key1 The first ranking key
+     * @param key2 The second ranking key
+     * @return A positive number if the first key ranks higher, a negative number if the second key ranks higher or 0 if both rank the same
+     * @see #compareRanking(ArgumentChain, ArgumentChain)
+     */
+    static int compareRankingKeys(final int[] key1, final int[] key2) {
+        if (key1[0] != key2[0]) return Integer.compare(key1[0], key2[0]);
+        for (int i = 1; i < key1.length; i++) {
+            if (key1[i] != key2[i]) return Integer.compare(key1[i], key2[i]);
+        }
+        return 0;
+    }
 
-            @Override
-            public Function<ExecutionContext<E>, ?> getExecutor() {
-                return chain2.getExecutor();
-            }
-        };
+    private static <E> ArgumentChain<E> of(final ArgumentChain<E> chain, final int fromIndex) {
+        ArgumentChain<E> out = null;
+        for (int i = fromIndex; i < chain.getLength(); i++) out = new ArgumentChain<>(out, chain.getArgument(i));
+        return out;
     }
 
 
-    private final List<ArgumentNode<E, ?>> arguments;
+    private final ArgumentChain<E> parent;
+    private final ArgumentNode<E, ?> argument;
+    private final int length;
+    private final ArgumentLayout layout;
+    private final int slot;
+    private volatile ArgumentNode<E, ?>[] arguments;
+    private volatile Map<ArgumentChain<E>, ArgumentChain<E>> mergedChains;
+    private volatile int[] rankingKey;
 
     private ArgumentChain() {
-        this.arguments = new ArrayList<>();
+        this.parent = null;
+        this.argument = null;
+        this.length = 0;
+        this.layout = null;
+        this.slot = -1;
     }
 
-    private ArgumentChain(final List<ArgumentNode<E, ?>> arguments) {
-        this.arguments = arguments;
-    }
-
-    private ArgumentChain(final ArgumentNode<E, ?> argument) {
-        this.arguments = new ArrayList<>();
-        this.arguments.add(argument);
-    }
-
-    private ArgumentChain(final ArgumentChain<E> chain) {
-        this.arguments = new ArrayList<>(chain.arguments);
+    private ArgumentChain(@Nullable final ArgumentChain<E> parent, final ArgumentNode<E, ?> argument) {
+        this.parent = parent;
+        this.argument = argument;
+        this.length = parent == null ? 1 : parent.length + 1;
+        ArgumentLayout layout = parent == null ? ArgumentLayout.EMPTY : parent.layout;
+        if (argument.providesArgument()) {
+            this.layout = layout.with(argument.name());
+            this.slot = this.layout.indexOf(argument.name());
+        } else {
+            this.layout = layout;
+            this.slot = -1;
+        }
     }
 
-    private void addArgument(final ArgumentNode<E, ?> argument) {
-        this.arguments.add(argument);
+    /**
+     * Get the chain containing all arguments of this chain except the last one.<br>
+     * Chains built by {@link #buildChains(ArgumentNode)} share their parent with all chains starting with the same arguments.
+     *
+     * @return The parent chain or {@code null} if this chain only has one argument or is a merged chain
+     */
+    @Nullable
+    ArgumentChain<E> getParent() {
+        return this.parent;
     }
 
     public int getLength() {
-        return this.arguments.size();
+        return this.length;
     }
 
     /**
      * @return The weights of all arguments in this chain
      */
     public int[] getWeights() {
-        int[] weights = new int[this.arguments.size()];
-        for (int i = 0; i < this.arguments.size(); i++) weights[i] = this.arguments.get(i).weight();
+        int[] weights = new int[this.length];
+        for (ArgumentChain<E> link = this; link != null; link = link.parent) weights[link.length - 1] = link.argument.weight();
         return weights;
     }
 
     /**
-     * Get an argument node by its index.
+     * Get the key used to rank this chain.<br>
+     * The key contains the length of the chain followed by the weights of all arguments.<br>
+     * It is calculated when it is requested for the first time and must not be modified.
+     *
+     * @return The ranking key
+     * @see #compareRanking(ArgumentChain, ArgumentChain)
+     */
+    int[] getRankingKey() {
+        int[] rankingKey = this.rankingKey;
+        if (rankingKey == null) {
+            rankingKey = new int[this.length + 1];
+            rankingKey[0] = this.length;
+            for (ArgumentChain<E> link = this; link != null; link = link.parent) rankingKey[link.length] = link.argument.weight();
+            this.rankingKey = rankingKey;
+        }
+        return rankingKey;
+    }
+
+    /**
+     * Get an argument node by its index.<br>
+     * The arguments of the chain are collected into an array when an argument other than the last one is requested for the first time.
      *
      * @param index The index
      * @return The argument node
      * @throws IndexOutOfBoundsException If the index is out of bounds
      */
     public ArgumentNode<E, ?> getArgument(final int index) {
-        return this.arguments.get(index);
+        if (index == this.length - 1) return this.argument;
+        if (index < 0 || index >= this.length) throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + this.length);
+        ArgumentNode<E, ?>[] arguments = this.arguments;
+        if (arguments == null) {
+            arguments = Util.cast(new ArgumentNode<?, ?>[this.length]);
+            for (ArgumentChain<E> link = this; link != null; link = link.parent) arguments[link.length - 1] = link.argument;
+            this.arguments = arguments;
+        }
+        return arguments[index];
+    }
+
+    /**
+     * Copy all arguments of this chain into the given array without caching them in this chain.
+     *
+     * @param target The array with at least {@link #getLength()} elements
+     */
+    void copyArguments(final ArgumentNode<E, ?>[] target) {
+        for (ArgumentChain<E> link = this; link != null; link = link.parent) target[link.length - 1] = link.argument;
+    }
+
+    /**
+     * Merge this chain with a chain of the redirect target.<br>
+     * The merged chain is cached, so parsing the same redirect again does not create a new chain.<br>
+     * Targets which are already merged chains (nested redirects) are not cached to keep the cache size limited by the amount of target chains.
+     *
+     * @param target The target chain
+     * @return The merged chain
+     * @see #merge(ArgumentChain, ArgumentChain)
+     */
+    ArgumentChain<E> mergeWith(final ArgumentChain<E> target) {
+        if (target instanceof MergedChain) return merge(this, target);
+        Map<ArgumentChain<E>, ArgumentChain<E>> mergedChains = this.mergedChains;
+        if (mergedChains == null) {
+            synchronized (this) {
+                mergedChains = this.mergedChains;
+                if (mergedChains == null) this.mergedChains = mergedChains = new ConcurrentHashMap<>();
+            }
+        }
+        return mergedChains.computeIfAbsent(target, chain -> merge(this, chain));
+    }
+
+    /**
+     * Get a chain containing all arguments starting at the given index.
+     *
+     * @param fromIndex The index of the first argument
+     * @return The sub chain
+     */
+    ArgumentChain<E> subChain(final int fromIndex) {
+        return ArgumentChain.of(this, fromIndex);
     }
 
     /**
@@ -162,10 +266,10 @@ public class ArgumentChain<E> {
      */
     public List<MatchedArgument> parse(final ExecutionContext<E> executionContext, final StringReader reader) throws ChainExecutionException {
         List<MatchedArgument> out = new ArrayList<>();
-        for (int i = 0; i < this.arguments.size(); i++) {
+        for (int i = 0; i < this.getLength(); i++) {
             int cursor = reader.getCursor();
-            ArgumentNode<E, ?> argument = this.arguments.get(i);
-            boolean isLast = i == this.arguments.size() - 1;
+            ArgumentNode<E, ?> argument = this.getArgument(i);
+            boolean isLast = i == this.getLength() - 1;
             try {
                 if (!argument.requirement().test(executionContext)) {
                     throw new ChainExecutionException(ChainExecutionException.Reason.REQUIREMENT_FAILED, i, cursor, argument.name(), reader.readRemaining());
@@ -175,26 +279,26 @@ public class ArgumentChain<E> {
                     return out;
                 }
                 Object parsedArgument = argument.value(executionContext, reader);
-                out.add(new MatchedArgument(cursor, reader.getString().substring(cursor, reader.getCursor()), parsedArgument));
+                out.add(new MatchedArgument(cursor, reader.substring(cursor, reader.getCursor()), parsedArgument));
                 if (!isLast && (!reader.canRead() || reader.read() != ' ')) {
                     throw new ChainExecutionException(ChainExecutionException.Reason.MISSING_SPACE, i, cursor, null, reader.readRemaining());
                 }
                 if (!isLast && !reader.canRead()) {
-                    ArgumentNode<E, ?> nextArgument = this.arguments.get(i + 1);
+                    ArgumentNode<E, ?> nextArgument = this.getArgument(i + 1);
                     if (!nextArgument.requirement().test(executionContext)) {
                         throw new ChainExecutionException(ChainExecutionException.Reason.REQUIREMENT_FAILED, i + 1, cursor, nextArgument.name(), reader.readRemaining());
                     }
-                    String missingArguments = new ArgumentChain<>(this.arguments.subList(i + 1, this.arguments.size())).toString();
+                    String missingArguments = this.subChain(i + 1).toString();
                     throw new ChainExecutionException(ChainExecutionException.Reason.NO_ARGUMENTS_LEFT, i + 1, reader.getCursor(), null, missingArguments);
                 } else if (isLast && reader.canRead()) {
                     throw new ChainExecutionException(ChainExecutionException.Reason.TOO_MANY_ARGUMENTS, i, reader.getCursor(), null, reader.readRemaining());
                 }
             } catch (HandledException e) {
-                throw new ChainExecutionException(e, i, cursor, argument.name(), reader.getString().substring(cursor, reader.getCursor()));
+                throw new ChainExecutionException(e, i, cursor, argument.name(), reader.substring(cursor, reader.getCursor()));
             } catch (ArgumentParseException e) {
-                throw new ChainExecutionException(e, i, cursor, argument.name(), reader.getString().substring(cursor, reader.getCursor()));
+                throw new ChainExecutionException(e, i, cursor, argument.name(), reader.substring(cursor, reader.getCursor()));
             } catch (RuntimeException e) {
-                throw new ChainExecutionException(e, i, cursor, argument.name(), reader.getString().substring(cursor, reader.getCursor()));
+                throw new ChainExecutionException(e, i, cursor, argument.name(), reader.substring(cursor, reader.getCursor()));
             }
         }
         return out;
@@ -207,10 +311,34 @@ public class ArgumentChain<E> {
      * @param arguments        The arguments
      */
     public void populateArguments(final ExecutionContext<E> executionContext, final List<ArgumentChain.MatchedArgument> arguments) {
-        for (int i = 0; i < this.arguments.size(); i++) {
-            ArgumentNode<E, ?> argumentNode = this.arguments.get(i);
-            if (!argumentNode.providesArgument()) continue;
-            executionContext.addArgument(argumentNode.name(), arguments.get(i).getValue());
+        executionContext.prepareArguments(this.getArgumentLayout());
+        this.writeArguments(executionContext, arguments, null);
+    }
+
+    /**
+     * Get the layout of the arguments provided by this chain.<br>
+     * The slots are resolved when the chain is built. Chains starting with the same arguments use the same slots for them.
+     *
+     * @return The argument layout
+     */
+    public ArgumentLayout getArgumentLayout() {
+        return this.layout;
+    }
+
+    /**
+     * Write the given arguments into the slots of the execution context.
+     *
+     * @param executionContext The execution context
+     * @param arguments        The arguments
+     * @param slots            The slots of the context for the slots of this chain or {@code null} if the context uses the layout of this chain
+     */
+    void writeArguments(final ExecutionContext<E> executionContext, final List<ArgumentChain.MatchedArgument> arguments, @Nullable final int[] slots) {
+        for (ArgumentChain<E> link = this; link != null; link = link.parent) {
+            if (link.slot < 0) continue;
+            MatchedArgument argument = arguments.get(link.length - 1);
+            int slot = slots == null ? link.slot : slots[link.slot];
+            if (argument.value instanceof Primitive) executionContext.setArgument(slot, (Primitive) argument.value, argument.primitiveBits);
+            else executionContext.setArgument(slot, argument.value);
         }
     }
 
@@ -220,7 +348,7 @@ public class ArgumentChain<E> {
      * @return The executor
      */
     public Function<ExecutionContext<E>, ?> getExecutor() {
-        return this.arguments.get(this.arguments.size() - 1).executor();
+        return this.argument.executor();
     }
 
     @Override
@@ -247,17 +375,127 @@ public class ArgumentChain<E> {
 
 
     /**
-     * A wrapper for an argument that has been matched.
+     * A chain ending with a redirect node merged with a chain of the redirect target.<br>
+     * The ranking key is calculated once when the chain is created.
+     *
+     * @param <E> The type of the executor
+     */
+    private static class MergedChain<E> extends ArgumentChain<E> {
+        private final ArgumentChain<E> chain1;
+        private final ArgumentChain<E> chain2;
+        private final int length;
+        private final int[] rankingKey;
+        private volatile ArgumentLayout layout;
+        private volatile int[] slots;
+
+        private MergedChain(final ArgumentChain<E> chain1, final ArgumentChain<E> chain2) {
+            this.chain1 = chain1;
+            this.chain2 = chain2;
+            this.length = chain1.getLength() + chain2.getLength();
+            this.rankingKey = new int[this.length + 1];
+            this.rankingKey[0] = this.length;
+            System.arraycopy(chain1.getRankingKey(), 1, this.rankingKey, 1, chain1.getLength());
+            System.arraycopy(chain2.getRankingKey(), 1, this.rankingKey, 1 + chain1.getLength(), chain2.getLength());
+        }
+
+        @Override
+        public int getLength() {
+            return this.length;
+        }
+
+        @Override
+        public int[] getWeights() {
+            return Arrays.copyOfRange(this.rankingKey, 1, this.rankingKey.length);
+        }
+
+        @Override
+        int[] getRankingKey() {
+            return this.rankingKey;
+        }
+
+        @Override
+        public ArgumentNode<E, ?> getArgument(int index) {
+            if (index < this.chain1.getLength()) return this.chain1.getArgument(index);
+            return this.chain2.getArgument(index - this.chain1.getLength());
+        }
+
+        @Override
+        void copyArguments(ArgumentNode<E, ?>[] target) {
+            for (int i = 0; i < this.length; i++) target[i] = this.getArgument(i);
+        }
+
+        @Override
+        public List<MatchedArgument> parse(ExecutionContext<E> executionContext, StringReader reader) {
+            throw new UnsupportedOperationException("Can not parse a merged chain");
+        }
+
+        /**
+         * The layout starts with the slots of the first chain, so the first chain can write its arguments without remapping them.<br>
+         * Arguments of the second chain with the same name as an argument of the first chain share its slot and replace its value.
+         */
+        @Override
+        public ArgumentLayout getArgumentLayout() {
+            ArgumentLayout layout = this.layout;
+            if (layout == null) {
+                ArgumentLayout layout2 = this.chain2.getArgumentLayout();
+                layout = this.chain1.getArgumentLayout();
+                int[] slots = new int[layout2.size()];
+                for (int i = 0; i < slots.length; i++) {
+                    layout = layout.with(layout2.getName(i));
+                    slots[i] = layout.indexOf(layout2.getName(i));
+                }
+                this.slots = slots;
+                this.layout = layout;
+            }
+            return layout;
+        }
+
+        @Override
+        void writeArguments(ExecutionContext<E> executionContext, List<MatchedArgument> arguments, @Nullable int[] slots) {
+            this.getArgumentLayout();
+            int[] slots2 = this.slots;
+            if (slots != null) {
+                int[] mapped = new int[slots2.length];
+                for (int i = 0; i < mapped.length; i++) mapped[i] = slots[slots2[i]];
+                slots2 = mapped;
+            }
+            this.chain1.writeArguments(executionContext, arguments.subList(0, this.chain1.getLength()), slots);
+            this.chain2.writeArguments(executionContext, arguments.subList(this.chain1.getLength(), arguments.size()), slots2);
+        }
+
+        @Override
+        public Function<ExecutionContext<E>, ?> getExecutor() {
+            return this.chain2.getExecutor();
+        }
+    }
+
+    /**
+     * A wrapper for an argument that has been matched.<br>
+     * The matched string is only extracted from the input when it is requested.
      */
     public static class MatchedArgument {
         private final int cursor;
-        private final String match;
+        private final int end;
+        private final CharSequence input;
+        private String match;
         private final Object value;
+        private final long primitiveBits;
 
-        private MatchedArgument(final int cursor, final String match, final Object value) {
+        MatchedArgument(final int cursor, final String match, final Object value) {
             this.cursor = cursor;
+            this.end = cursor + match.length();
+            this.input = null;
             this.match = match;
             this.value = value;
+            this.primitiveBits = 0;
+        }
+
+        MatchedArgument(final CharSequence input, final int cursor, final int end, final Object value, final long primitiveBits) {
+            this.cursor = cursor;
+            this.end = end;
+            this.input = input;
+            this.value = value;
+            this.primitiveBits = primitiveBits;
         }
 
         /**
@@ -271,6 +509,7 @@ public class ArgumentChain<E> {
          * @return The matched string
          */
         public String getMatch() {
+            if (this.match == null) this.match = this.input.subSequence(this.cursor, this.end).toString();
             return this.match;
         }
 
@@ -278,7 +517,7 @@ public class ArgumentChain<E> {
          * @return The parsed value
          */
         public Object getValue() {
-            return this.value;
+            return Primitive.box(this.value, this.primitiveBits);
         }
     }
 
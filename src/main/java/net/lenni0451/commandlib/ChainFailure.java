@@ -0,0 +1,167 @@
+package net.lenni0451.commandlib;
+
+import net.lenni0451.commandlib.exceptions.ArgumentParseException;
+import net.lenni0451.commandlib.exceptions.ChainExecutionException;
+import net.lenni0451.commandlib.exceptions.HandledException;
+
+import javax.annotation.Nullable;
+import java.util.function.Supplier;
+
+/**
+ * The details why an argument chain could not be parsed.<br>
+ * The {@link ChainExecutionException} (and the exception causing the failure) is only created when it is requested.
+ */
+public class ChainFailure {
+
+    /**
+     * Create a failure without a cause.
+     *
+     * @param reason         The reason why the parse failed
+     * @param executionIndex The index of the argument which caused the failure
+     * @param readerCursor   The cursor position of the reader when the failure occurred
+     * @param argumentName   The name of the argument which caused the failure
+     * @param extraData      Extra data which was provided by the command chain
+     * @return The created failure
+     */
+    public static ChainFailure of(final ChainExecutionException.Reason reason, final int executionIndex, final int readerCursor, @Nullable final String argumentName, @Nullable final String extraData) {
+        return new ChainFailure(reason, executionIndex, readerCursor, argumentName, extraData, null);
+    }
+
+    /**
+     * Create a failure caused by a failed argument parse.<br>
+     * The cause can either be an {@link ArgumentParseException}, a {@link RuntimeException}, a {@link HandledException} or a {@link Supplier} of an {@link ArgumentParseException}.
+     *
+     * @param cause          The cause of the failure
+     * @param executionIndex The index of the argument which caused the failure
+     * @param readerCursor   The cursor position of the reader when the failure occurred
+     * @param argumentName   The name of the argument which caused the failure
+     * @param extraData      Extra data which was provided by the command chain
+     * @return The created failure
+     * @throws IllegalArgumentException If the cause is of an unknown type
+     */
+    public static ChainFailure caused(final Object cause, final int executionIndex, final int readerCursor, @Nullable final String argumentName, @Nullable final String extraData) {
+        ChainExecutionException.Reason reason;
+        if (cause instanceof HandledException) reason = ChainExecutionException.Reason.HANDLED_OTHERWISE;
+        else if (cause instanceof ArgumentParseException || cause instanceof Supplier) reason = ChainExecutionException.Reason.ARGUMENT_PARSE_EXCEPTION;
+        else if (cause instanceof RuntimeException) reason = ChainExecutionException.Reason.RUNTIME_EXCEPTION;
+        else throw new IllegalArgumentException("Unknown cause type: " + cause);
+        return new ChainFailure(reason, executionIndex, readerCursor, argumentName, extraData, cause);
+    }
+
+    /**
+     * Wrap an already created chain execution exception.
+     *
+     * @param exception The exception
+     * @return The created failure
+     */
+    public static ChainFailure of(final ChainExecutionException exception) {
+        ChainFailure failure = new ChainFailure(exception.getReason(), exception.getExecutionIndex(), exception.getReaderCursor(), exception.getArgumentName(), exception.getExtraData(), exception.getCause());
+        failure.exception = exception;
+        return failure;
+    }
+
+
+    private final ChainExecutionException.Reason reason;
+    private final int executionIndex;
+    private final int readerCursor;
+    private final String argumentName;
+    private final String extraData;
+    private Object cause;
+    private ChainExecutionException exception;
+
+    private ChainFailure(final ChainExecutionException.Reason reason, final int executionIndex, final int readerCursor, @Nullable final String argumentName, @Nullable final String extraData, @Nullable final Object cause) {
+        this.reason = reason;
+        this.executionIndex = executionIndex;
+        this.readerCursor = readerCursor;
+        this.argumentName = argumentName;
+        this.extraData = extraData;
+        this.cause = cause;
+    }
+
+    /**
+     * @return The reason why the parse failed
+     */
+    public ChainExecutionException.Reason getReason() {
+        return this.reason;
+    }
+
+    /**
+     * @return The index of the argument which caused the failure
+     */
+    public int getExecutionIndex() {
+        return this.executionIndex;
+    }
+
+    /**
+     * @return The cursor position of the reader when the failure occurred
+     */
+    public int getReaderCursor() {
+        return this.readerCursor;
+    }
+
+    /**
+     * @return The name of the argument which caused the failure
+     */
+    @Nullable
+    public String getArgumentName() {
+        return this.argumentName;
+    }
+
+    /**
+     * @return Extra data which was provided by the command chain
+     */
+    @Nullable
+    public String getExtraData() {
+        return this.extraData;
+    }
+
+    /**
+     * Get the exception which caused the failure.<br>
+     * If the exception has not been created yet it will be created now.<br>
+     * Exceptions handled by an exception handler are unwrapped.
+     *
+     * @return The cause or {@code null} if there is none
+     */
+    @Nullable
+    public Throwable getCause() {
+        if (this.cause instanceof Supplier) this.cause = ((Supplier<?>) this.cause).get();
+        if (this.cause instanceof HandledException) return ((HandledException) this.cause).getCause();
+        return (Throwable) this.cause;
+    }
+
+    /**
+     * Move the failure by the given amount of arguments.<br>
+     * This is used when merging a redirect chain with its target chain.<br>
+     * The cause of the failure is not kept.
+     *
+     * @param executionIndexOffset The amount of arguments
+     * @return The moved failure
+     */
+    public ChainFailure offset(final int executionIndexOffset) {
+        return new ChainFailure(this.reason, this.executionIndex + executionIndexOffset, this.readerCursor, this.argumentName, this.extraData, null);
+    }
+
+    /**
+     * Get the chain execution exception describing this failure.<br>
+     * If the exception has not been created yet it will be created now.
+     *
+     * @return The exception
+     */
+    public ChainExecutionException toException() {
+        if (this.exception == null) {
+            if (this.cause instanceof Supplier) this.cause = ((Supplier<?>) this.cause).get();
+
+            if (this.cause instanceof HandledException) {
+                this.exception = new ChainExecutionException((HandledException) this.cause, this.executionIndex, this.readerCursor, this.argumentName, this.extraData);
+            } else if (this.cause instanceof ArgumentParseException) {
+                this.exception = new ChainExecutionException((ArgumentParseException) this.cause, this.executionIndex, this.readerCursor, this.argumentName, this.extraData);
+            } else if (this.cause instanceof RuntimeException) {
+                this.exception = new ChainExecutionException((RuntimeException) this.cause, this.executionIndex, this.readerCursor, this.argumentName, this.extraData);
+            } else {
+                this.exception = new ChainExecutionException(this.reason, this.executionIndex, this.readerCursor, this.argumentName, this.extraData);
+            }
+        }
+        return this.exception;
+    }
+
+}
@@ -0,0 +1,616 @@
+package net.lenni0451.commandlib;
+
+import net.lenni0451.commandlib.contexts.ExecutionContext;
+import net.lenni0451.commandlib.exceptions.ArgumentParseException;
+import net.lenni0451.commandlib.exceptions.ChainExecutionException;
+import net.lenni0451.commandlib.nodes.ArgumentNode;
+import net.lenni0451.commandlib.nodes.RedirectNode;
+import net.lenni0451.commandlib.nodes.StringNode;
+import net.lenni0451.commandlib.utils.ParseStatus;
+import net.lenni0451.commandlib.utils.StringReader;
+import net.lenni0451.commandlib.utils.Util;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A tree of argument chains sharing their common prefixes.<br>
+ * Parsing walks the tree instead of every single chain, so arguments shared by multiple chains are only parsed once per input.<br>
+ * The tree is compiled into a flat program of instructions when it is built, which is run by a single interpreter loop.<br>
+ * The results are the same as parsing every chain on its own using {@link ArgumentChain#parse(ExecutionContext, StringReader)}.<br>
+ * Failures are reported as {@link ChainFailure} which only create exceptions when they are requested.
+ *
+ * @param <E> The type of the executor
+ */
+public class ChainTree<E> {
+
+    /**
+     * Build a tree of all chains for the given argument node.
+     *
+     * @param argument The argument node
+     * @param <E>      The type of the executor
+     * @return The chain tree
+     * @throws IllegalArgumentException If a duplicate argument name is found or the chain end has no executor
+     * @see ArgumentChain#buildChains(ArgumentNode)
+     */
+    public static <E> ChainTree<E> build(final ArgumentNode<E, ?> argument) {
+        return build(ArgumentChain.buildChains(argument));
+    }
+
+    /**
+     * Build a tree of the given chains.<br>
+     * The chains are sorted by preference, starting with the chain which would be executed if all chains could be parsed.<br>
+     * Chains with the same ranking keep their original order.
+     *
+     * @param chains The chains
+     * @param <E>    The type of the executor
+     * @return The chain tree
+     * @see #parseMatches(ExecutionContext, StringReader, ParseCache, ParseListener)
+     */
+    public static <E> ChainTree<E> build(final List<ArgumentChain<E>> chains) {
+        //The chain ids are the positions in the preference order, so comparing two ids is enough to find the preferred chain
+        List<ArgumentChain<E>> sortedChains = sortByPreference(chains);
+        Branch<E> root = new Branch<>(null);
+        ArgumentNode<E, ?>[] arguments = Util.cast(new ArgumentNode<?, ?>[0]);
+        for (int id = 0; id < sortedChains.size(); id++) {
+            ArgumentChain<E> chain = sortedChains.get(id);
+            if (arguments.length < chain.getLength()) arguments = Util.cast(new ArgumentNode<?, ?>[chain.getLength()]);
+            chain.copyArguments(arguments);
+
+            Branch<E> branch = root;
+            for (int i = 0; i < chain.getLength(); i++) branch = branch.getOrCreate(arguments[i]);
+            if (branch != root) branch.chainId = id;
+        }
+        return new ChainTree<>(sortedChains, new Compiler<>(root).compile());
+    }
+
+    private static <E> List<ArgumentChain<E>> sortByPreference(final List<ArgumentChain<E>> chains) {
+        //The ranking keys are only needed once, so they are not cached in the chains
+        int[][] keys = new int[chains.size()][];
+        Integer[] indices = new Integer[chains.size()];
+        for (int i = 0; i < chains.size(); i++) {
+            ArgumentChain<E> chain = chains.get(i);
+            int[] key = new int[chain.getLength() + 1];
+            key[0] = chain.getLength();
+            System.arraycopy(chain.getWeights(), 0, key, 1, chain.getLength());
+            keys[i] = key;
+            indices[i] = i;
+        }
+        //The sort is stable, so chains with the same ranking keep their original order
+        Arrays.sort(indices, (i1, i2) -> ArgumentChain.compareRankingKeys(keys[i1], keys[i2]));
+        List<ArgumentChain<E>> sortedChains = new ArrayList<>(chains.size());
+        for (Integer index : indices) sortedChains.add(chains.get(index));
+        return sortedChains;
+    }
+
+
+    /**
+     * Match a literal string without calling the argument node.
+     */
+    private static final int MATCH_LITERAL = 0;
+    /**
+     * Parse the value of the argument node.
+     */
+    private static final int PARSE = 1;
+    /**
+     * Accept the chain ending with the redirect node.
+     */
+    private static final int REDIRECT = 2;
+    /**
+     * Flag: Accept the chain ending at the argument if no input is left.
+     */
+    private static final int ACCEPT = 1 << 2;
+    /**
+     * Flag: Require a space followed by more input before parsing the children.
+     */
+    private static final int SPACE = 1 << 3;
+    private static final int OPCODE_MASK = 0b11;
+    private static final int DEPTH_SHIFT = 4;
+
+
+    private final List<ArgumentChain<E>> chains;
+    private final Program<E> program;
+
+    private ChainTree(final List<ArgumentChain<E>> chains, final Program<E> program) {
+        this.chains = chains;
+        this.program = program;
+    }
+
+    /**
+     * @return All chains in this tree
+     */
+    public List<ArgumentChain<E>> getChains() {
+        return Collections.unmodifiableList(this.chains);
+    }
+
+    /**
+     * Parse the given input for all chains in this tree.<br>
+     * The reader cursor is reset to the start after parsing.
+     *
+     * @param executionContext The execution context
+     * @param reader           The input reader
+     * @return The parse result containing all chains in their preference order
+     */
+    public ParseResult<E> parse(final ExecutionContext<E> executionContext, final StringReader reader) {
+        List<ParseResult.ParsedChain<E>> parsedChains = new ArrayList<>();
+        List<ParseResult.FailedChain<E>> failedChains = new ArrayList<>();
+        this.parse(executionContext, reader, new ParseListener<E>() {
+            @Override
+            public void parsed(ArgumentChain<E> chain, List<ArgumentChain.MatchedArgument> matchedArguments) {
+                parsedChains.add(new ParseResult.ParsedChain<>(chain, matchedArguments));
+            }
+
+            @Override
+            public void failed(ArgumentChain<E> chain, ChainFailure failure) {
+                failedChains.add(new ParseResult.FailedChain<>(chain, failure));
+            }
+        });
+        return new ParseResult<>(parsedChains, failedChains);
+    }
+
+    /**
+     * Parse the given input for all chains in this tree.<br>
+     * The listener is called once for every chain in the preference order of the chains after the whole tree has been parsed.<br>
+     * The reader cursor is reset to the start before the listener is called.
+     *
+     * @param executionContext The execution context
+     * @param reader           The input reader
+     * @param listener         The listener receiving the results
+     */
+    public void parse(final ExecutionContext<E> executionContext, final StringReader reader, final ParseListener<E> listener) {
+        this.parse(executionContext, reader, new ParseCache(), listener);
+    }
+
+    /**
+     * Parse the given input for all chains in this tree.<br>
+     * The listener is called once for every chain in the preference order of the chains after the whole tree has been parsed.<br>
+     * The reader cursor is reset to the start before the listener is called.<br>
+     * Parsed arguments are stored in the given cache and reused if the same argument node is parsed at the same cursor again.
+     *
+     * @param executionContext The execution context
+     * @param reader           The input reader
+     * @param cache            The parse cache for the current input
+     * @param listener         The listener receiving the results
+     */
+    public void parse(final ExecutionContext<E> executionContext, final StringReader reader, final ParseCache cache, final ParseListener<E> listener) {
+        this.parse(executionContext, reader, cache, listener, false);
+    }
+
+    /**
+     * Parse the given input only for the chains which could be executed.<br>
+     * Parsing stops as soon as none of the remaining chains could be preferred over an already parsed chain.<br>
+     * Chains ending with a redirect node are never skipped because their ranking depends on the chains of the redirect target.<br>
+     * Failures are not collected and {@link ParseListener#failed(ArgumentChain, ChainFailure)} is never called.<br>
+     * The listener is called in the preference order of the chains after parsing has stopped.
+     *
+     * @param executionContext The execution context
+     * @param reader           The input reader
+     * @param cache            The parse cache for the current input
+     * @param listener         The listener receiving the results
+     */
+    public void parseMatches(final ExecutionContext<E> executionContext, final StringReader reader, final ParseCache cache, final ParseListener<E> listener) {
+        this.parse(executionContext, reader, cache, listener, true);
+    }
+
+    private void parse(final ExecutionContext<E> executionContext, final StringReader reader, final ParseCache cache, final ParseListener<E> listener, final boolean matchesOnly) {
+        int cursor = reader.getCursor();
+        int chainCount = matchesOnly ? 0 : this.chains.size();
+        Frame frame = cache.enterFrame();
+        try {
+            frame.prepare(this.program.maxDepth, chainCount);
+            this.run(executionContext, reader, cache, frame, matchesOnly ? null : frame.failures);
+            reader.setCursor(cursor);
+
+            frame.sortMatches();
+            if (matchesOnly) {
+                for (int i = 0; i < frame.matchCount; i++) listener.parsed(this.chains.get(frame.matchIds[i]), frame.matches[i]);
+                return;
+            }
+            int match = 0;
+            for (int id = 0; id < chainCount; id++) {
+                if (match < frame.matchCount && frame.matchIds[match] == id) listener.parsed(this.chains.get(id), frame.matches[match++]);
+                else if (frame.failures[id] != null) listener.failed(this.chains.get(id), frame.failures[id]);
+                else throw new IllegalStateException("Chain was not parsed: " + this.chains.get(id));
+            }
+        } finally {
+            frame.release(chainCount);
+            cache.exitFrame();
+        }
+    }
+
+    /**
+     * Run the program of this tree.<br>
+     * If no failures array is given, failures are not created and the program stops once the preferred chain has been parsed.
+     */
+    private void run(final ExecutionContext<E> executionContext, final StringReader reader, final ParseCache cache, final Frame frame, @Nullable final ChainFailure[] failures) {
+        final Program<E> program = this.program;
+        final int[] code = program.code;
+        final ArgumentNode<E, ?>[] nodes = program.nodes;
+        final int[] end = program.end;
+        final CharSequence input = reader.getSource();
+        final int[] branches = frame.branches;
+        final int[] pathStart = frame.pathStart;
+        final int[] pathEnd = frame.pathEnd;
+        final Object[] pathValue = frame.pathValue;
+        final long[] pathBits = frame.pathBits;
+        final ParseStatus status = frame.status;
+        branches[0] = reader.getCursor();
+        int preferred = Integer.MAX_VALUE;
+
+        //Every instruction parses one branch, so the program counter is also the index of the branch
+        int pc = 0;
+        while (pc < code.length) {
+            //All chains before the current branch have been parsed, so the preferred chain is known if it ranks before all remaining chains
+            if (failures == null && preferred < program.best[program.from[pc]]) break;
+            final int instruction = code[pc];
+            final int depth = instruction >>> DEPTH_SHIFT;
+            final ArgumentNode<E, ?> argument = nodes[pc];
+            final int cursor = branches[depth];
+            reader.setCursor(cursor);
+            try {
+                if (!argument.requirement().test(executionContext)) {
+                    if (failures != null) this.fail(failures, program.from[pc], program.to(pc), ChainFailure.of(ChainExecutionException.Reason.REQUIREMENT_FAILED, depth, cursor, argument.name(), reader.readRemaining()));
+                    pc = end[pc];
+                    continue;
+                }
+            } catch (RuntimeException e) {
+                if (failures != null) this.fail(failures, program.from[pc], program.to(pc), ChainFailure.caused(e, depth, cursor, argument.name(), ""));
+                pc = end[pc];
+                continue;
+            }
+
+            switch (instruction & OPCODE_MASK) {
+                case MATCH_LITERAL: {
+                    Object cause;
+                    try {
+                        CharSequence word = reader.readWordOrStringView();
+                        if (executionContext.getArgumentComparator().compare(word, argument.name())) {
+                            pathStart[depth] = cursor;
+                            pathEnd[depth] = reader.getCursor();
+                            pathValue[depth] = argument.name();
+                            break;
+                        }
+                        cause = program.literalFailures[pc];
+                    } catch (RuntimeException e) {
+                        cause = e;
+                    }
+                    if (failures != null) this.fail(failures, program.from[pc], program.to(pc), ChainFailure.caused(cause, depth, cursor, argument.name(), reader.substring(cursor, reader.getCursor())));
+                    pc = end[pc];
+                    continue;
+                }
+                case PARSE: {
+                    ParseCache.Entry entry = cache.get(argument, cursor);
+                    if (entry == null) {
+                        status.reset();
+                        try {
+                            Object parsedArgument = argument.rawValue(executionContext, reader, status);
+                            entry = cache.put(argument, cursor, reader.getCursor(), parsedArgument, status.getPrimitiveBits(), status.hasFailed() ? status.getCause() : null);
+                        } catch (RuntimeException e) {
+                            entry = cache.put(argument, cursor, reader.getCursor(), null, e);
+                        }
+                    } else {
+                        reader.setCursor(entry.getEnd());
+                    }
+                    if (!entry.hasFailed()) {
+                        pathStart[depth] = cursor;
+                        pathEnd[depth] = entry.getEnd();
+                        pathValue[depth] = entry.getRawValue();
+                        pathBits[depth] = entry.getPrimitiveBits();
+                        break;
+                    }
+                    if (failures != null) this.fail(failures, program.from[pc], program.to(pc), ChainFailure.caused(entry.getCause(), depth, cursor, argument.name(), reader.substring(cursor, entry.getEnd())));
+                    pc = end[pc];
+                    continue;
+                }
+                case REDIRECT:
+                    pathStart[depth] = cursor;
+                    pathEnd[depth] = cursor;
+                    pathValue[depth] = argument.name();
+                    frame.addMatch(program.order[program.from[pc]], input, depth);
+                    pc++;
+                    continue;
+                default:
+                    throw new IllegalStateException("Unknown instruction: " + instruction);
+            }
+
+            if ((instruction & ACCEPT) != 0) {
+                int chainId = program.order[program.from[pc]];
+                if (!reader.canRead()) {
+                    frame.addMatch(chainId, input, depth);
+                    preferred = Math.min(preferred, chainId);
+                } else if (failures != null) {
+                    failures[chainId] = ChainFailure.of(ChainExecutionException.Reason.TOO_MANY_ARGUMENTS, depth, reader.getCursor(), null, reader.peekRemaining());
+                }
+            }
+            if ((instruction & SPACE) != 0) {
+                if (!reader.canRead() || reader.read() != ' ') {
+                    if (failures != null) this.fail(failures, program.from[pc + 1], program.to(pc), ChainFailure.of(ChainExecutionException.Reason.MISSING_SPACE, depth, cursor, null, reader.readRemaining()));
+                    pc = end[pc];
+                    continue;
+                } else if (!reader.canRead()) {
+                    if (failures != null) this.failMissingArguments(executionContext, reader, failures, pc, depth, cursor);
+                    pc = end[pc];
+                    continue;
+                }
+                branches[depth + 1] = reader.getCursor();
+            }
+            pc++;
+        }
+    }
+
+    private void failMissingArguments(final ExecutionContext<E> executionContext, final StringReader reader, final ChainFailure[] failures, final int branch, final int depth, final int cursor) {
+        Program<E> program = this.program;
+        ArgumentNode<E, ?> argument = program.nodes[branch];
+        for (int child = branch + 1; child < program.end[branch]; child = program.end[child]) {
+            ArgumentNode<E, ?> childNode = program.nodes[child];
+            boolean requirement;
+            try {
+                requirement = childNode.requirement().test(executionContext);
+            } catch (RuntimeException e) {
+                this.fail(failures, program.from[child], program.to(child), ChainFailure.caused(e, depth, cursor, argument.name(), reader.substring(cursor, reader.getCursor())));
+                continue;
+            }
+            if (!requirement) {
+                this.fail(failures, program.from[child], program.to(child), ChainFailure.of(ChainExecutionException.Reason.REQUIREMENT_FAILED, depth + 1, cursor, childNode.name(), reader.readRemaining()));
+            } else {
+                for (int i = program.from[child]; i < program.to(child); i++) {
+                    int id = program.order[i];
+                    String missingArguments = this.chains.get(id).subChain(depth + 1).toString();
+                    failures[id] = ChainFailure.of(ChainExecutionException.Reason.NO_ARGUMENTS_LEFT, depth + 1, reader.getCursor(), null, missingArguments);
+                }
+            }
+        }
+    }
+
+    private void fail(final ChainFailure[] failures, final int from, final int to, final ChainFailure failure) {
+        for (int i = from; i < to; i++) failures[this.program.order[i]] = failure;
+    }
+
+
+
+    /**
+     * A listener receiving the results of parsing a chain tree.
+     *
+     * @param <E> The type of the executor
+     */
+    public interface ParseListener<E> {
+        /**
+         * Called when a chain has been parsed successfully.
+         *
+         * @param chain            The parsed chain
+         * @param matchedArguments The matched arguments
+         */
+        void parsed(final ArgumentChain<E> chain, final List<ArgumentChain.MatchedArgument> matchedArguments);
+
+        /**
+         * Called when a chain could not be parsed.
+         *
+         * @param chain   The failed chain
+         * @param failure The details of the failure
+         */
+        void failed(final ArgumentChain<E> chain, final ChainFailure failure);
+    }
+
+    /**
+     * The buffers used for parsing a chain tree.<br>
+     * Frames are kept by the {@link ParseCache}, so the buffers are reused when the cache is reused for the next input.<br>
+     * The arguments of the current path are stored as cursor ranges and values. Matched arguments are only created for chains which have been parsed successfully.
+     */
+    static class Frame {
+        private final ParseStatus status = new ParseStatus();
+        private int[] branches = new int[1];
+        private int[] pathStart = new int[0];
+        private int[] pathEnd = new int[0];
+        private Object[] pathValue = new Object[0];
+        private long[] pathBits = new long[0];
+        private int[] matchIds = new int[4];
+        private List<ArgumentChain.MatchedArgument>[] matches = Util.cast(new List<?>[4]);
+        private int matchCount;
+        private ChainFailure[] failures = new ChainFailure[0];
+
+        private void prepare(final int maxDepth, final int chainCount) {
+            if (this.branches.length < maxDepth + 1) {
+                this.branches = new int[maxDepth + 1];
+                this.pathStart = new int[maxDepth];
+                this.pathEnd = new int[maxDepth];
+                this.pathValue = new Object[maxDepth];
+                this.pathBits = new long[maxDepth];
+            }
+            if (this.failures.length < chainCount) this.failures = new ChainFailure[chainCount];
+        }
+
+        private void addMatch(final int chainId, final CharSequence input, final int depth) {
+            List<ArgumentChain.MatchedArgument> matchedArguments = new ArrayList<>(depth + 1);
+            for (int i = 0; i <= depth; i++) matchedArguments.add(new ArgumentChain.MatchedArgument(input, this.pathStart[i], this.pathEnd[i], this.pathValue[i], this.pathBits[i]));
+            if (this.matchCount == this.matchIds.length) {
+                this.matchIds = Arrays.copyOf(this.matchIds, this.matchCount * 2);
+                this.matches = Arrays.copyOf(this.matches, this.matchCount * 2);
+            }
+            this.matchIds[this.matchCount] = chainId;
+            this.matches[this.matchCount++] = matchedArguments;
+        }
+
+        private void sortMatches() {
+            //Chains are matched in depth-first order, there are usually only a few of them
+            for (int i = 1; i < this.matchCount; i++) {
+                int id = this.matchIds[i];
+                List<ArgumentChain.MatchedArgument> match = this.matches[i];
+                int j = i - 1;
+                for (; j >= 0 && this.matchIds[j] > id; j--) {
+                    this.matchIds[j + 1] = this.matchIds[j];
+                    this.matches[j + 1] = this.matches[j];
+                }
+                this.matchIds[j + 1] = id;
+                this.matches[j + 1] = match;
+            }
+        }
+
+        private void release(final int chainCount) {
+            Arrays.fill(this.pathValue, null);
+            Arrays.fill(this.matches, 0, this.matchCount, null);
+            Arrays.fill(this.failures, 0, chainCount, null);
+            this.matchCount = 0;
+        }
+    }
+
+    private static class Branch<E> {
+        private final ArgumentNode<E, ?> node;
+        private List<Branch<E>> children = Collections.emptyList();
+        private Map<ArgumentNode<E, ?>, Branch<E>> childIndex;
+        private int chainId = -1;
+
+        private Branch(final ArgumentNode<E, ?> node) {
+            this.node = node;
+        }
+
+        private Branch<E> getOrCreate(final ArgumentNode<E, ?> node) {
+            Branch<E> branch;
+            if (this.childIndex != null) {
+                branch = this.childIndex.get(node);
+            } else {
+                branch = null;
+                for (Branch<E> child : this.children) {
+                    if (child.node == node) {
+                        branch = child;
+                        break;
+                    }
+                }
+            }
+            if (branch == null) {
+                branch = new Branch<>(node);
+                if (this.children.isEmpty()) this.children = new ArrayList<>(4);
+                this.children.add(branch);
+                if (this.childIndex != null) {
+                    this.childIndex.put(node, branch);
+                } else if (this.children.size() > 8) {
+                    //Index wide branches to avoid scanning all children for every chain
+                    this.childIndex = new IdentityHashMap<>();
+                    for (Branch<E> child : this.children) this.childIndex.put(child.node, child);
+                }
+            }
+            return branch;
+        }
+    }
+
+    /**
+     * The compiled program of a chain tree.<br>
+     * The branches are numbered in depth-first order and every branch is compiled into a single instruction.<br>
+     * An instruction contains the opcode, the {@link #ACCEPT} and {@link #SPACE} flags and the depth of the argument.<br>
+     * The chains of a branch are {@code order[from[branch]]} to {@code order[to(branch) - 1]}, starting with the chain ending at the branch itself (if any).<br>
+     * The children of a branch start at {@code branch + 1} and the next sibling of a branch is {@code end[branch]}.<br>
+     * {@code best[i]} is the lowest chain id of {@code order[i]} to {@code order[order.length - 1]}, or {@code -1} if one of them ends with a redirect node.<br>
+     * {@code literalFailures[branch]} is the precomputed failure message supplier of a literal branch, or {@code null} for other branches.
+     *
+     * @param <E> The type of the executor
+     */
+    private static class Program<E> {
+        private final int[] code;
+        private final ArgumentNode<E, ?>[] nodes;
+        private final int[] from;
+        private final int[] end;
+        private final int[] order;
+        private final int[] best;
+        private final Object[] literalFailures;
+        private final int maxDepth;
+
+        private Program(final int[] code, final ArgumentNode<E, ?>[] nodes, final int[] from, final int[] end, final int[] order, final int[] best, final Object[] literalFailures, final int maxDepth) {
+            this.code = code;
+            this.nodes = nodes;
+            this.from = from;
+            this.end = end;
+            this.order = order;
+            this.best = best;
+            this.literalFailures = literalFailures;
+            this.maxDepth = maxDepth;
+        }
+
+        private int to(final int branch) {
+            int next = this.end[branch];
+            return next < this.from.length ? this.from[next] : this.order.length;
+        }
+    }
+
+    /**
+     * Lowers the branches of a chain tree into a flat program.
+     *
+     * @param <E> The type of the executor
+     */
+    private static class Compiler<E> {
+        private final int[] code;
+        private final ArgumentNode<E, ?>[] nodes;
+        private final int[] from;
+        private final int[] end;
+        private final int[] order;
+        private final int[] best;
+        private final Object[] literalFailures;
+        private final Branch<E> root;
+        private int branchCount = 0;
+        private int chainCount = 0;
+        private int maxDepth = 0;
+
+        private Compiler(final Branch<E> root) {
+            this.root = root;
+            for (Branch<E> branch : root.children) this.count(branch);
+            this.code = new int[this.branchCount];
+            this.nodes = Util.cast(new ArgumentNode<?, ?>[this.branchCount]);
+            this.from = new int[this.branchCount];
+            this.end = new int[this.branchCount];
+            this.literalFailures = new Object[this.branchCount];
+            this.order = new int[this.chainCount];
+            this.best = new int[this.chainCount + 1];
+            this.branchCount = 0;
+            this.chainCount = 0;
+        }
+
+        private void count(final Branch<E> branch) {
+            this.branchCount++;
+            if (branch.chainId != -1) this.chainCount++;
+            for (Branch<E> child : branch.children) this.count(child);
+        }
+
+        private Program<E> compile() {
+            for (Branch<E> branch : this.root.children) this.compile(branch, 0);
+            this.best[this.order.length] = Integer.MAX_VALUE;
+            for (int i = this.order.length - 1; i >= 0; i--) this.best[i] = Math.min(this.best[i], this.best[i + 1]);
+            return new Program<>(this.code, this.nodes, this.from, this.end, this.order, this.best, this.literalFailures, this.maxDepth);
+        }
+
+        private void compile(final Branch<E> branch, final int depth) {
+            int index = this.branchCount++;
+            ArgumentNode<E, ?> node = branch.node;
+            this.nodes[index] = node;
+            this.from[index] = this.chainCount;
+            this.maxDepth = Math.max(this.maxDepth, depth + 1);
+
+            int instruction;
+            if (node instanceof RedirectNode) instruction = REDIRECT;
+            else if (isLiteral(node)) instruction = MATCH_LITERAL;
+            else instruction = PARSE;
+            if (instruction == MATCH_LITERAL) this.literalFailures[index] = (Supplier<ArgumentParseException>) () -> ArgumentParseException.namedReason(node.name(), "Expected '" + node.name() + "'");
+            if (branch.chainId != -1) {
+                //Chains ending with a redirect node could always be preferred because the redirect target is not known yet
+                this.best[this.chainCount] = instruction == REDIRECT ? -1 : branch.chainId;
+                this.order[this.chainCount++] = branch.chainId;
+                if (instruction != REDIRECT) instruction |= ACCEPT;
+            }
+            if (!branch.children.isEmpty()) instruction |= SPACE;
+            this.code[index] = instruction | (depth << DEPTH_SHIFT);
+
+            for (Branch<E> child : branch.children) this.compile(child, depth + 1);
+            this.end[index] = this.branchCount;
+        }
+
+        private static boolean isLiteral(final ArgumentNode<?, ?> node) {
+            //Subclasses of the string node might change the parsing behavior
+            return node.getClass() == StringNode.class && node.validator() == null && node.exceptionHandler() == null;
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package net.lenni0451.commandlib;
 
 import net.lenni0451.commandlib.contexts.CompletionContext;
+import net.lenni0451.commandlib.contexts.ElementCheckpoints;
 import net.lenni0451.commandlib.contexts.ExecutionContext;
 import net.lenni0451.commandlib.exceptions.ChainExecutionException;
 import net.lenni0451.commandlib.exceptions.CommandExecutionException;
@@ -15,8 +16,13 @@ import net.lenni0451.commandlib.utils.comparator.CompletionsComparator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * The handler for all registered commands.
@@ -25,16 +31,65 @@ import java.util.stream.Collectors;
  */
 public class CommandExecutor<E> {
 
+    /**
+     * The default maximum amount of nested redirects followed while parsing a command.
+     */
+    public static final int DEFAULT_MAX_REDIRECT_DEPTH = 16;
+
+
     private final ArgumentComparator argumentComparator;
-    private final Map<StringNode<E>, List<ArgumentChain<E>>> chains;
+    private final int maxRedirectDepth;
+    private final AtomicReference<CommandSnapshot<E>> snapshot;
 
     public CommandExecutor() {
         this(ArgumentComparator.CASE_INSENSITIVE);
     }
 
     public CommandExecutor(final ArgumentComparator argumentComparator) {
+        this(argumentComparator, DEFAULT_MAX_REDIRECT_DEPTH);
+    }
+
+    /**
+     * @param argumentComparator The comparator used for matching string arguments
+     * @param maxRedirectDepth   The maximum amount of nested redirects followed while parsing a command.<br>
+     *                           Redirects exceeding this depth fail with {@link ChainExecutionException.Reason#REDIRECT_LIMIT_REACHED}.
+     */
+    public CommandExecutor(final ArgumentComparator argumentComparator, final int maxRedirectDepth) {
+        if (maxRedirectDepth < 0) throw new IllegalArgumentException("The max redirect depth must not be negative");
         this.argumentComparator = argumentComparator;
-        this.chains = new HashMap<>();
+        this.maxRedirectDepth = maxRedirectDepth;
+        this.snapshot = new AtomicReference<>(new CommandSnapshot<>(argumentComparator));
+    }
+
+    /**
+     * Get the currently registered commands.<br>
+     * The returned snapshot is immutable and can be used to run multiple calls with the same commands
+     * while other threads register or unregister commands.
+     *
+     * @return The current snapshot
+     */
+    public CommandSnapshot<E> snapshot() {
+        return this.snapshot.get();
+    }
+
+    /**
+     * Create a new session for executing commands with this executor.<br>
+     * The buffers of the session are reused for every call, see {@link #execute(ParseSession, Object, CharSequence)}.
+     *
+     * @return The new session
+     */
+    public ParseSession<E> createSession() {
+        return new ParseSession<>(this, this.argumentComparator);
+    }
+
+    /**
+     * Create a new session for requesting completions while the input is typed.<br>
+     * See {@link #completions(CompletionSession, Object, CharSequence)}.
+     *
+     * @return The new session
+     */
+    public CompletionSession<E> createCompletionSession() {
+        return new CompletionSession<>(this);
     }
 
     /**
@@ -50,13 +105,34 @@ public class CommandExecutor<E> {
     }
 
     /**
-     * Register a string argument node.
+     * Register a string argument node.<br>
+     * Commands with the same name are replaced.<br>
+     * This method is thread-safe. Calls which are already running keep using the commands they started with.<br>
+     * The argument node must not be modified after registering it.
      *
      * @param stringNode The string argument node
      */
     public void register(final StringNode<E> stringNode) {
-        this.chains.entrySet().removeIf(entry -> this.argumentComparator.compare(entry.getKey().name(), stringNode.name()));
-        this.chains.put(stringNode, ArgumentChain.buildChains(stringNode));
+        ChainTree<E> chains = ChainTree.build(stringNode);
+        this.snapshot.updateAndGet(snapshot -> snapshot.with(stringNode, chains));
+    }
+
+    /**
+     * Unregister all commands with the given name.<br>
+     * This method is thread-safe. Calls which are already running keep using the commands they started with.
+     *
+     * @param name The name of the command
+     * @return If a command was unregistered
+     */
+    public boolean unregister(final String name) {
+        CommandSnapshot<E> current;
+        CommandSnapshot<E> updated;
+        do {
+            current = this.snapshot.get();
+            updated = current.without(name);
+            if (updated == current) return false;
+        } while (!this.snapshot.compareAndSet(current, updated));
+        return true;
     }
 
     /**
@@ -67,7 +143,7 @@ public class CommandExecutor<E> {
      * @return The sorted completions
      */
     public Set<Completion> completions(@Nonnull final E executor, @Nonnull final String command) {
-        return this.completions(executor, new StringReader(command));
+        return this.completions(this.snapshot.get(), executor, new StringReader(command));
     }
 
     /**
@@ -78,58 +154,237 @@ public class CommandExecutor<E> {
      * @return The sorted completions
      */
     public Set<Completion> completions(@Nonnull final E executor, @Nonnull final StringReader reader) {
+        return this.completions(this.snapshot.get(), executor, reader);
+    }
+
+    /**
+     * Get completions for the given command input.
+     *
+     * @param executor The executor
+     * @param command  The command input
+     * @return The sorted completions
+     */
+    public Set<Completion> completions(@Nonnull final E executor, @Nonnull final CharSequence command) {
+        return this.completions(this.snapshot.get(), executor, new StringReader(command));
+    }
+
+    /**
+     * Get completions for the given command input.
+     *
+     * @param executor The executor
+     * @param command  The char array containing the command input
+     * @param offset   The index of the first character of the command input
+     * @param length   The length of the command input
+     * @return The sorted completions
+     */
+    public Set<Completion> completions(@Nonnull final E executor, @Nonnull final char[] command, final int offset, final int length) {
+        return this.completions(this.snapshot.get(), executor, new StringReader(command, offset, length));
+    }
+
+    /**
+     * Get completions for the given UTF-8 encoded command input.<br>
+     * The remaining bytes of the buffer are decoded while they are parsed, the position of the buffer is not changed.
+     *
+     * @param executor The executor
+     * @param command  The UTF-8 encoded command input
+     * @return The sorted completions
+     */
+    public Set<Completion> completions(@Nonnull final E executor, @Nonnull final ByteBuffer command) {
+        return this.completions(this.snapshot.get(), executor, new StringReader(command));
+    }
+
+    /**
+     * Get completions for the given command input using the checkpoints of the given session.<br>
+     * If the input only changed at the end since the last call with the session,
+     * list and array arguments resume parsing at the last unchanged element.
+     *
+     * @param session  The session created by this executor
+     * @param executor The executor
+     * @param command  The command input
+     * @return The sorted completions
+     */
+    public Set<Completion> completions(@Nonnull final CompletionSession<E> session, @Nonnull final E executor, @Nonnull final CharSequence command) {
+        if (session.getCommandExecutor() != this) throw new IllegalArgumentException("The session was created by another command executor");
+        CommandSnapshot<E> snapshot = this.snapshot.get();
+        ElementCheckpoints checkpoints = session.update(snapshot, executor, command);
+        return this.completions(snapshot, executor, new StringReader(command), checkpoints);
+    }
+
+    /**
+     * Get completions for the given command input using the commands of the given snapshot.
+     *
+     * @param snapshot The snapshot of this executor
+     * @param executor The executor
+     * @param command  The command input
+     * @return The sorted completions
+     */
+    public Set<Completion> completions(@Nonnull final CommandSnapshot<E> snapshot, @Nonnull final E executor, @Nonnull final String command) {
+        return this.completions(snapshot, executor, new StringReader(command));
+    }
+
+    /**
+     * Get completions for the given command input using the commands of the given snapshot.
+     *
+     * @param snapshot The snapshot of this executor
+     * @param executor The executor
+     * @param reader   The string reader
+     * @return The sorted completions
+     */
+    public Set<Completion> completions(@Nonnull final CommandSnapshot<E> snapshot, @Nonnull final E executor, @Nonnull final StringReader reader) {
+        return this.completions(snapshot, executor, reader, null);
+    }
+
+    private Set<Completion> completions(final CommandSnapshot<E> snapshot, final E executor, final StringReader reader, @Nullable final ElementCheckpoints checkpoints) {
         Set<Completion> completions = new HashSet<>();
+        this.collectCompletions(snapshot, executor, reader, checkpoints, false, null, completion -> {
+            completions.add(completion);
+            return true;
+        });
+        return this.sort(completions);
+    }
+
+    private Set<Completion> sort(final Set<Completion> completions) {
+        Set<Completion> sorted = new LinkedHashSet<>();
+        for (Completion completion : new CompletionsComparator(this.argumentComparator).sort(completions)) sorted.add(quote(completion));
+        return sorted;
+    }
+
+    /**
+     * Get the first completions for the given command input.<br>
+     * The result is the same as the first completions returned by {@link #completions(Object, CharSequence)},
+     * but only the best completions are kept while collecting them instead of sorting all of them.<br>
+     * Arguments which provide their completions in sorted order (See {@link CompletionContext#setCompletionsSorted(boolean)})
+     * stop being collected as soon as no further completion could be part of the result.
+     *
+     * @param executor The executor
+     * @param command  The command input
+     * @param limit    The maximum amount of completions
+     * @return The sorted completions
+     * @throws IllegalArgumentException If the limit is not positive
+     */
+    public Set<Completion> completions(@Nonnull final E executor, @Nonnull final CharSequence command, final int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("The limit must be positive");
+        TopCompletions topCompletions = new TopCompletions(new CompletionsComparator(this.argumentComparator), limit);
+        this.collectCompletions(this.snapshot.get(), executor, new StringReader(command), null, false, null, topCompletions::offer);
+        Set<Completion> completions = new LinkedHashSet<>();
+        for (Completion completion : topCompletions.getSorted()) completions.add(quote(completion));
+        return completions;
+    }
+
+    /**
+     * Stream the completions for the given command input to the given consumer.<br>
+     * The arguments add their completions directly to a sink which filters, quotes and deduplicates them,
+     * so every completion is passed to the consumer as soon as it is provided (e.g. to send it over the network).<br>
+     * The completions are passed in the order they are provided and are <b>not</b> sorted.<br>
+     * Completions which have already been passed to the consumer can not be removed by custom completion providers.
+     *
+     * @param executor The executor
+     * @param command  The command input
+     * @param consumer The consumer receiving the completions
+     */
+    public void completions(@Nonnull final E executor, @Nonnull final CharSequence command, @Nonnull final Consumer<Completion> consumer) {
+        Set<Completion> provided = new HashSet<>();
+        this.collectCompletions(this.snapshot.get(), executor, new StringReader(command), null, true, null, completion -> {
+            if (provided.add(completion)) consumer.accept(quote(completion));
+            return true;
+        });
+    }
+
+    /**
+     * Get the completions for the given command input without waiting for slow asynchronous completion providers.<br>
+     * The command is parsed and synchronous completion providers are called on the calling thread.
+     * All asynchronous completion providers (See {@link ArgumentNode#asyncCompletions(net.lenni0451.commandlib.utils.interfaces.AsyncCompletionsProvider)})
+     * are started at the same time and run in parallel.<br>
+     * The returned future completes with the completions of all providers which completed before the deadline, sorted like {@link #completions(Object, CharSequence)}.
+     * Providers which completed exceptionally are ignored.
+     *
+     * @param executor The executor
+     * @param command  The command input
+     * @param deadline The maximum time to wait for asynchronous completion providers
+     * @return The future completing with the sorted completions
+     * @throws IllegalArgumentException If the deadline is negative
+     */
+    public CompletableFuture<Set<Completion>> completionsAsync(@Nonnull final E executor, @Nonnull final CharSequence command, @Nonnull final Duration deadline) {
+        if (deadline.isNegative()) throw new IllegalArgumentException("The deadline must not be negative");
+        PendingCompletions<E> pending = new PendingCompletions<>(this.argumentComparator);
+        this.collectCompletions(this.snapshot.get(), executor, new StringReader(command), null, false, pending, pending::add);
+        return pending.finish(deadline, this::sort);
+    }
+
+    /**
+     * Collect all completions for the given command input.<br>
+     * The target returns {@code false} if it does not accept any completion sorted after the given one.<br>
+     * If pending completions are passed, asynchronous completion providers are only started instead of waiting for them.
+     */
+    private void collectCompletions(final CommandSnapshot<E> snapshot, final E executor, final StringReader reader, @Nullable final ElementCheckpoints checkpoints, final boolean stream, @Nullable final PendingCompletions<E> pending, final Predicate<Completion> target) {
         if (!reader.canRead()) {
-            completions.addAll(this.chains.keySet().stream().map(StringNode::name).map(n -> new Completion(0, n)).collect(Collectors.toList()));
-        } else {
-            ExecutionContext<E> executionContext = new ExecutionContext<>(this.argumentComparator, executor, false);
-            ParseResult<E> parseResult = this.parseChains(executionContext, reader);
-
-            for (ParseResult.ParsedChain<E> parsedChain : parseResult.getParsedChains()) {
-                if (parsedChain.getMatchedArguments().isEmpty()) continue;
-                ArgumentChain<E> chain = parsedChain.getArgumentChain();
-                List<ArgumentChain.MatchedArgument> matchedArguments = parsedChain.getMatchedArguments();
-
-                CompletionContext completionContext = new CompletionContext();
-                ArgumentChain.MatchedArgument match = matchedArguments.get(matchedArguments.size() - 1);
-                ArgumentNode<E, ?> argument = chain.getArgument(matchedArguments.size() - 1);
-                reader.setCursor(match.getCursor());
-                String check = reader.peekRemaining();
-                Set<String> argumentCompletions = argument.parseCompletions(completionContext, executionContext, reader);
-                for (String completion : argumentCompletions) {
-                    int trim = completionContext.getCompletionsTrim();
-                    if (completionContext.getCompletionMatcher().match(this.argumentComparator, completion, check.substring(trim))) {
-                        completions.add(new Completion(match.getCursor() + trim, completion));
-                    }
-                }
-            }
-            for (ParseResult.FailedChain<E> failedChain : parseResult.getFailedChains()) {
-                ArgumentChain<E> chain = failedChain.getArgumentChain();
-                ChainExecutionException exception = failedChain.getExecutionException();
-                if (ChainExecutionException.Reason.REQUIREMENT_FAILED.equals(exception.getReason())) continue;
-
-                CompletionContext completionContext = new CompletionContext();
-                reader.setCursor(exception.getReaderCursor());
-                ArgumentNode<E, ?> argument = chain.getArgument(exception.getExecutionIndex());
-                while (argument instanceof RedirectNode) argument = ((RedirectNode<E>) argument).getTargetNode();
-                String check = reader.peekRemaining();
-                Set<String> argumentCompletions = argument.parseCompletions(completionContext, executionContext, reader);
-                for (String completion : argumentCompletions) {
-                    int trim = completionContext.getCompletionsTrim();
-                    if (completionContext.getCompletionMatcher().match(this.argumentComparator, completion, check.substring(trim))) {
-                        completions.add(new Completion(exception.getReaderCursor() + trim, completion));
-                    }
-                }
-            }
+            for (StringNode<E> root : snapshot.getRoots()) target.test(new Completion(0, root.name()));
+            return;
+        }
+
+        ExecutionContext<E> executionContext = new ExecutionContext<>(this.argumentComparator, executor, false);
+        executionContext.setElementCheckpoints(checkpoints);
+        ParseResult<E> parseResult = this.parseChains(snapshot, executionContext, reader, new ParseCache(), false);
+        //Chains sharing an argument would request the same completions at the same cursor again
+        Map<ArgumentNode<E, ?>, BitSet> requested = new IdentityHashMap<>();
+
+        for (ParseResult.ParsedChain<E> parsedChain : parseResult.getParsedChains()) {
+            if (parsedChain.getMatchedArguments().isEmpty()) continue;
+            ArgumentChain<E> chain = parsedChain.getArgumentChain();
+            List<ArgumentChain.MatchedArgument> matchedArguments = parsedChain.getMatchedArguments();
+
+            ArgumentChain.MatchedArgument match = matchedArguments.get(matchedArguments.size() - 1);
+            ArgumentNode<E, ?> argument = chain.getArgument(matchedArguments.size() - 1);
+            if (!markRequested(requested, argument, match.getCursor())) continue;
+            if (pending != null && argument.completionsProvider() == null && argument.asyncCompletionsProvider() != null) pending.request(argument, match.getCursor(), executionContext, reader);
+            else if (stream) this.streamCompletions(argument, match.getCursor(), executionContext, reader, target);
+            else this.collectCompletions(argument, match.getCursor(), executionContext, reader, target);
+        }
+        for (ParseResult.FailedChain<E> failedChain : parseResult.getFailedChains()) {
+            ArgumentChain<E> chain = failedChain.getArgumentChain();
+            ChainFailure failure = failedChain.getFailure();
+            if (ChainExecutionException.Reason.REQUIREMENT_FAILED.equals(failure.getReason())) continue;
+
+            ArgumentNode<E, ?> argument = chain.getArgument(failure.getExecutionIndex());
+            while (argument instanceof RedirectNode) argument = ((RedirectNode<E>) argument).getTargetNode();
+            if (!markRequested(requested, argument, failure.getReaderCursor())) continue;
+            if (pending != null && argument.completionsProvider() == null && argument.asyncCompletionsProvider() != null) pending.request(argument, failure.getReaderCursor(), executionContext, reader);
+            else if (stream) this.streamCompletions(argument, failure.getReaderCursor(), executionContext, reader, target);
+            else this.collectCompletions(argument, failure.getReaderCursor(), executionContext, reader, target);
+        }
+    }
+
+    private void collectCompletions(final ArgumentNode<E, ?> argument, final int cursor, final ExecutionContext<E> executionContext, final StringReader reader, final Predicate<Completion> target) {
+        CompletionContext completionContext = new CompletionContext();
+        reader.setCursor(cursor);
+        String check = reader.peekRemaining();
+        Set<String> argumentCompletions = argument.parseCompletions(completionContext, executionContext, reader);
+        if (argumentCompletions.isEmpty()) return;
+        int trim = completionContext.getCompletionsTrim();
+        String trimmedCheck = check.substring(trim);
+        for (String completion : argumentCompletions) {
+            if (!completionContext.getCompletionMatcher().match(this.argumentComparator, completion, trimmedCheck)) continue;
+            if (!target.test(new Completion(cursor + trim, completion)) && completionContext.isCompletionsSorted()) break;
         }
-        return completions
-                .stream()
-                .sorted(new CompletionsComparator(this.argumentComparator))
-                .map(s -> {
-                    if (s.getCompletion().contains(" ")) return new Completion(s.getStart(), "\"" + s.getCompletion().replace("\\", "\\\\").replace("\"", "\\\"") + "\"");
-                    else return s;
-                })
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private void streamCompletions(final ArgumentNode<E, ?> argument, final int cursor, final ExecutionContext<E> executionContext, final StringReader reader, final Predicate<Completion> target) {
+        CompletionContext completionContext = new CompletionContext();
+        reader.setCursor(cursor);
+        String check = reader.peekRemaining();
+        argument.streamCompletions(completionContext, executionContext, reader, new CompletionSink(this.argumentComparator, completionContext, argument.completionModifier(), cursor, check, target));
+    }
+
+    private static Completion quote(final Completion completion) {
+        if (!completion.getCompletion().contains(" ")) return completion;
+        return new Completion(completion.getStart(), "\"" + completion.getCompletion().replace("\\", "\\\\").replace("\"", "\\\"") + "\"");
+    }
+
+    private static <E> boolean markRequested(final Map<ArgumentNode<E, ?>, BitSet> requested, final ArgumentNode<E, ?> argument, final int cursor) {
+        BitSet cursors = requested.computeIfAbsent(argument, a -> new BitSet());
+        if (cursors.get(cursor)) return false;
+        cursors.set(cursor);
+        return true;
     }
 
     /**
@@ -143,7 +398,7 @@ public class CommandExecutor<E> {
      */
     @Nullable
     public <T> T execute(@Nonnull final E executor, @Nonnull final String command) throws CommandExecutionException {
-        return this.execute(executor, new StringReader(command));
+        return this.execute(this.snapshot.get(), executor, new StringReader(command));
     }
 
     /**
@@ -157,91 +412,295 @@ public class CommandExecutor<E> {
      */
     @Nullable
     public <T> T execute(@Nonnull final E executor, @Nonnull final StringReader reader) throws CommandExecutionException {
+        return this.execute(this.snapshot.get(), executor, reader);
+    }
+
+    /**
+     * Execute the given command input.
+     *
+     * @param executor The executor
+     * @param command  The command input
+     * @param <T>      The return type of the executed command
+     * @return The return value of the executed command
+     * @throws CommandExecutionException If the command execution failed
+     */
+    @Nullable
+    public <T> T execute(@Nonnull final E executor, @Nonnull final CharSequence command) throws CommandExecutionException {
+        return this.execute(this.snapshot.get(), executor, new StringReader(command));
+    }
+
+    /**
+     * Execute the given command input.
+     *
+     * @param executor The executor
+     * @param command  The char array containing the command input
+     * @param offset   The index of the first character of the command input
+     * @param length   The length of the command input
+     * @param <T>      The return type of the executed command
+     * @return The return value of the executed command
+     * @throws CommandExecutionException If the command execution failed
+     */
+    @Nullable
+    public <T> T execute(@Nonnull final E executor, @Nonnull final char[] command, final int offset, final int length) throws CommandExecutionException {
+        return this.execute(this.snapshot.get(), executor, new StringReader(command, offset, length));
+    }
+
+    /**
+     * Execute the given UTF-8 encoded command input.<br>
+     * The remaining bytes of the buffer are decoded while they are parsed, the position of the buffer is not changed.
+     *
+     * @param executor The executor
+     * @param command  The UTF-8 encoded command input
+     * @param <T>      The return type of the executed command
+     * @return The return value of the executed command
+     * @throws CommandExecutionException If the command execution failed
+     */
+    @Nullable
+    public <T> T execute(@Nonnull final E executor, @Nonnull final ByteBuffer command) throws CommandExecutionException {
+        return this.execute(this.snapshot.get(), executor, new StringReader(command));
+    }
+
+    /**
+     * Execute the given command input using the buffers of the given session.<br>
+     * If the session is already in use (e.g. when a command executes another command with the same session), a new session is used for this call.
+     *
+     * @param session  The session created by this executor
+     * @param executor The executor
+     * @param command  The command input
+     * @param <T>      The return type of the executed command
+     * @return The return value of the executed command
+     * @throws CommandExecutionException If the command execution failed
+     */
+    @Nullable
+    public <T> T execute(@Nonnull final ParseSession<E> session, @Nonnull final E executor, @Nonnull final CharSequence command) throws CommandExecutionException {
+        if (session.getCommandExecutor() != this) throw new IllegalArgumentException("The session was created by another command executor");
+        if (session.isActive()) return this.execute(this.snapshot.get(), executor, new StringReader(command));
+        return this.execute(this.snapshot.get(), session, executor, session.getReader(command));
+    }
+
+    /**
+     * Execute the given command input using the commands of the given snapshot.
+     *
+     * @param snapshot The snapshot of this executor
+     * @param executor The executor
+     * @param command  The command input
+     * @param <T>      The return type of the executed command
+     * @return The return value of the executed command
+     * @throws CommandExecutionException If the command execution failed
+     */
+    @Nullable
+    public <T> T execute(@Nonnull final CommandSnapshot<E> snapshot, @Nonnull final E executor, @Nonnull final String command) throws CommandExecutionException {
+        return this.execute(snapshot, executor, new StringReader(command));
+    }
+
+    /**
+     * Execute the given command input using the commands of the given snapshot.
+     *
+     * @param snapshot The snapshot of this executor
+     * @param executor The executor
+     * @param reader   The string reader
+     * @param <T>      The return type of the executed command
+     * @return The return value of the executed command
+     * @throws CommandExecutionException If the command execution failed
+     */
+    @Nullable
+    public <T> T execute(@Nonnull final CommandSnapshot<E> snapshot, @Nonnull final E executor, @Nonnull final StringReader reader) throws CommandExecutionException {
+        return this.execute(snapshot, new ParseSession<>(this, this.argumentComparator), executor, reader);
+    }
+
+    private <T> T execute(final CommandSnapshot<E> snapshot, final ParseSession<E> session, final E executor, final StringReader reader) throws CommandExecutionException {
         if (!reader.canRead()) throw new CommandExecutionException("<none>");
-        ExecutionContext<E> executionContext = new ExecutionContext<>(this.argumentComparator, executor, true);
-        ParseResult<E> parseResult = this.parseChains(executionContext, reader);
+        session.begin(executor, true);
         try {
-            return this.executeChain(parseResult, executionContext, reader);
-        } catch (CommandExecutionException e) {
-            if (parseResult.getFailedChains().isEmpty()) throw e;
+            ExecutionContext<E> executionContext = session.getExecutionContext();
+            ParseResult<E> parseResult = session.getParseResult();
+            this.parseChains(snapshot, executionContext, reader, session.getCache(), true, session.getParsedChains(), session.getFailedChains());
+            if (parseResult.getParsedChains().isEmpty()) {
+                //The failures are only required for the error message, the cache keeps the already parsed arguments
+                this.parseChains(snapshot, executionContext, reader, session.getCache(), false, session.getParsedChains(), session.getFailedChains());
+            }
+            try {
+                return this.executeChain(parseResult, executionContext, reader);
+            } catch (CommandExecutionException e) {
+                if (parseResult.getFailedChains().isEmpty()) throw e;
 
-            List<ParseResult.FailedChain<E>> closeChains = CloseChainsComparator.sortAndFilter(parseResult.getFailedChains());
-            throw new CommandExecutionException(e.getCommand(), Util.cast(closeChains));
+                List<ParseResult.FailedChain<E>> closeChains = CloseChainsComparator.sortAndFilter(parseResult.getFailedChains());
+                throw new CommandExecutionException(e.getCommand(), Util.cast(closeChains));
+            }
+        } finally {
+            session.end();
         }
     }
 
-    private ParseResult<E> parseChains(final ExecutionContext<E> executionContext, final StringReader reader) {
-        List<ArgumentChain<E>> chains = new ArrayList<>();
-        for (List<ArgumentChain<E>> nodeChains : this.chains.values()) chains.addAll(nodeChains);
-        return this.parseChains(chains, executionContext, reader);
+    private ParseResult<E> parseChains(final CommandSnapshot<E> snapshot, final ExecutionContext<E> executionContext, final StringReader reader, final ParseCache cache, final boolean matchesOnly) {
+        List<ParseResult.ParsedChain<E>> parsedChains = new ArrayList<>();
+        List<ParseResult.FailedChain<E>> failedChains = new ArrayList<>();
+        this.parseChains(snapshot, executionContext, reader, cache, matchesOnly, parsedChains, failedChains);
+        return new ParseResult<>(parsedChains, failedChains);
+    }
+
+    private void parseChains(final CommandSnapshot<E> snapshot, final ExecutionContext<E> executionContext, final StringReader reader, final ParseCache cache, final boolean matchesOnly, final List<ParseResult.ParsedChain<E>> parsedChains, final List<ParseResult.FailedChain<E>> failedChains) {
+        int cursor = reader.getCursor();
+        String word = reader.readWordOrString();
+        reader.setCursor(cursor);
+
+        StringNode<E> root = snapshot.getRoot(word);
+        if (root != null) this.parseChains(snapshot.getTree(root), executionContext, reader, cache, 0, matchesOnly, parsedChains, failedChains);
+        if (matchesOnly) return;
+        //Roots only starting with the input can not be parsed successfully but are required for completions and close chains
+        for (StringNode<E> other : snapshot.getRootsStartingWith(word)) {
+            if (other == root) continue;
+            this.parseChains(snapshot.getTree(other), executionContext, reader, cache, 0, false, parsedChains, failedChains);
+        }
     }
 
-    private ParseResult<E> parseChains(final List<ArgumentChain<E>> chains, final ExecutionContext<E> executionContext, final StringReader reader) {
+    private ParseResult<E> parseChains(final ChainTree<E> chains, final ExecutionContext<E> executionContext, final StringReader reader, final ParseCache cache, final int redirectDepth, final boolean matchesOnly) {
         List<ParseResult.ParsedChain<E>> parsedChains = new ArrayList<>();
         List<ParseResult.FailedChain<E>> failedChains = new ArrayList<>();
+        this.parseChains(chains, executionContext, reader, cache, redirectDepth, matchesOnly, parsedChains, failedChains);
+        return new ParseResult<>(parsedChains, failedChains);
+    }
+
+    private void parseChains(final ChainTree<E> chains, final ExecutionContext<E> executionContext, final StringReader reader, final ParseCache cache, final int redirectDepth, final boolean matchesOnly, final List<ParseResult.ParsedChain<E>> parsedChains, final List<ParseResult.FailedChain<E>> failedChains) {
         int cursor = reader.getCursor();
-        for (ArgumentChain<E> chain : chains) {
-            reader.setCursor(cursor);
-            try {
-                List<ArgumentChain.MatchedArgument> matchedArguments = chain.parse(executionContext, reader);
+        ChainTree.ParseListener<E> listener = new ChainTree.ParseListener<E>() {
+            @Override
+            public void parsed(ArgumentChain<E> chain, List<ArgumentChain.MatchedArgument> matchedArguments) {
                 if (chain.getArgument(chain.getLength() - 1) instanceof RedirectNode) {
                     RedirectNode<E> redirectNode = (RedirectNode<E>) chain.getArgument(chain.getLength() - 1);
-                    ParseResult<E> redirectResult = this.parseChains(redirectNode.getTargetChains(), executionContext, reader);
+                    int redirectCursor = matchedArguments.get(matchedArguments.size() - 1).getCursor();
+                    if (redirectDepth >= CommandExecutor.this.maxRedirectDepth) {
+                        if (matchesOnly) return;
+                        ChainFailure failure = ChainFailure.of(ChainExecutionException.Reason.REDIRECT_LIMIT_REACHED, chain.getLength() - 1, redirectCursor, redirectNode.name(), null);
+                        failedChains.add(new ParseResult.FailedChain<>(chain, failure));
+                        return;
+                    }
+                    reader.setCursor(redirectCursor);
+                    ParseResult<E> redirectResult = CommandExecutor.this.parseChains(redirectNode.getTargetTree(), executionContext, reader, cache, redirectDepth + 1, matchesOnly);
                     for (ParseResult.ParsedChain<E> parsedChain : redirectResult.getParsedChains()) {
-                        matchedArguments.addAll(parsedChain.getMatchedArguments());
-                        parsedChains.add(new ParseResult.ParsedChain<>(ArgumentChain.merge(chain, parsedChain.getArgumentChain()), matchedArguments));
+                        List<ArgumentChain.MatchedArgument> mergedArguments = new ArrayList<>(matchedArguments.size() + parsedChain.getMatchedArguments().size());
+                        mergedArguments.addAll(matchedArguments);
+                        mergedArguments.addAll(parsedChain.getMatchedArguments());
+                        parsedChains.add(new ParseResult.ParsedChain<>(chain.mergeWith(parsedChain.getArgumentChain()), mergedArguments));
                     }
                     for (ParseResult.FailedChain<E> failedChain : redirectResult.getFailedChains()) {
-                        ChainExecutionException mergedException = new ChainExecutionException(failedChain.getExecutionException(), chain.getLength());
-                        failedChains.add(new ParseResult.FailedChain<>(ArgumentChain.merge(chain, failedChain.getArgumentChain()), mergedException));
+                        ChainFailure mergedFailure = failedChain.getFailure().offset(chain.getLength());
+                        failedChains.add(new ParseResult.FailedChain<>(chain.mergeWith(failedChain.getArgumentChain()), mergedFailure));
                     }
                 } else {
                     parsedChains.add(new ParseResult.ParsedChain<>(chain, matchedArguments));
                 }
-            } catch (ChainExecutionException e) {
-                if (e.getExecutionIndex() == 0) {
-                    reader.setCursor(e.getReaderCursor());
+            }
+
+            @Override
+            public void failed(ArgumentChain<E> chain, ChainFailure failure) {
+                if (failure.getExecutionIndex() == 0) {
+                    reader.setCursor(failure.getReaderCursor());
                     String word = reader.readWordOrString();
-                    if (!this.argumentComparator.startsWith(chain.getArgument(0).name(), word)) continue;
+                    if (!CommandExecutor.this.argumentComparator.startsWith(chain.getArgument(0).name(), word)) return;
                 }
-                failedChains.add(new ParseResult.FailedChain<>(chain, e));
+                failedChains.add(new ParseResult.FailedChain<>(chain, failure));
             }
-        }
+        };
+        if (matchesOnly) chains.parseMatches(executionContext, reader, cache, listener);
+        else chains.parse(executionContext, reader, cache, listener);
         reader.setCursor(cursor);
-        return new ParseResult<>(parsedChains, failedChains);
     }
 
     private <T> T executeChain(final ParseResult<E> parseResult, final ExecutionContext<E> executionContext, final StringReader reader) throws CommandExecutionException {
-        if (parseResult.getParsedChains().isEmpty()) {
-            throw new CommandExecutionException(reader.readWordOrString());
-        } else if (parseResult.getParsedChains().size() == 1) {
-            ParseResult.ParsedChain<E> chain = parseResult.getParsedChains().get(0);
-            List<ArgumentChain.MatchedArgument> arguments = chain.getMatchedArguments();
-            chain.getArgumentChain().populateArguments(executionContext, arguments);
-            return (T) chain.getArgumentChain().getExecutor().apply(executionContext);
-        } else {
-            List<ParseResult.ParsedChain<E>> parsedChains = new ArrayList<>();
-            ParseResult.ParsedChain<E> bestChain = this.findBestChain(parseResult.getParsedChains());
-            parsedChains.add(bestChain);
-            return this.executeChain(new ParseResult<>(parsedChains, parseResult.getFailedChains()), executionContext, reader);
-        }
+        if (parseResult.getParsedChains().isEmpty()) throw new CommandExecutionException(reader.readWordOrString());
+
+        ParseResult.ParsedChain<E> chain = this.findBestChain(parseResult.getParsedChains());
+        chain.getArgumentChain().populateArguments(executionContext, chain.getMatchedArguments());
+        return (T) chain.getArgumentChain().getExecutor().apply(executionContext);
     }
 
     private ParseResult.ParsedChain<E> findBestChain(final List<ParseResult.ParsedChain<E>> chains) {
-        return chains.stream().max((p1, p2) -> this.compareChains(p1.getArgumentChain(), p2.getArgumentChain())).orElseThrow(IllegalStateException::new);
+        if (chains.isEmpty()) throw new IllegalStateException();
+        ParseResult.ParsedChain<E> bestChain = chains.get(0);
+        for (int i = 1; i < chains.size(); i++) {
+            ParseResult.ParsedChain<E> chain = chains.get(i);
+            if (this.compareChains(bestChain.getArgumentChain(), chain.getArgumentChain()) < 0) bestChain = chain;
+        }
+        return bestChain;
     }
 
     private int compareChains(final ArgumentChain<E> chain1, final ArgumentChain<E> chain2) {
-        if (chain1.getLength() > chain2.getLength()) return -1;
-        if (chain1.getLength() < chain2.getLength()) return 1;
-
-        int[] weights1 = chain1.getWeights();
-        int[] weights2 = chain2.getWeights();
-        for (int i = 0; i < weights1.length; i++) {
-            if (weights1[i] > weights2[i]) return -1;
-            if (weights1[i] < weights2[i]) return 1;
+        return Integer.compare(0, ArgumentChain.compareRanking(chain1, chain2));
+    }
+
+
+    /**
+     * The set passed to the arguments when streaming completions.<br>
+     * All added completions are kept for membership checks like in a normal set, every new completion is also filtered and passed to the target.
+     * The completion modifier of the argument is applied to a copy of the completion context whenever the argument changes it,
+     * so the modifier overrides the settings of the argument like when the completions are collected.<br>
+     * Completions can not be removed because they may already have been passed to the target.
+     */
+    private static class CompletionSink extends AbstractSet<String> {
+        private final ArgumentComparator argumentComparator;
+        private final CompletionContext completionContext;
+        private final Consumer<CompletionContext> completionModifier;
+        private final int cursor;
+        private final String check;
+        private final Predicate<Completion> target;
+        private final Set<String> provided = new HashSet<>();
+        private int contextTrim = -1;
+        private CompletionContext.CompletionMatcher contextMatcher;
+        private int trim;
+        private CompletionContext.CompletionMatcher matcher;
+        private String trimmedCheck;
+
+        private CompletionSink(final ArgumentComparator argumentComparator, final CompletionContext completionContext, @Nullable final Consumer<CompletionContext> completionModifier, final int cursor, final String check, final Predicate<Completion> target) {
+            this.argumentComparator = argumentComparator;
+            this.completionContext = completionContext;
+            this.completionModifier = completionModifier;
+            this.cursor = cursor;
+            this.check = check;
+            this.target = target;
+        }
+
+        @Override
+        public boolean add(final String completion) {
+            if (!this.provided.add(completion)) return false;
+            this.updateContext();
+            if (this.matcher.match(this.argumentComparator, completion, this.trimmedCheck)) this.target.test(new Completion(this.cursor + this.trim, completion));
+            return true;
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return this.provided.contains(o);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return Collections.unmodifiableSet(this.provided).iterator();
+        }
+
+        @Override
+        public int size() {
+            return this.provided.size();
+        }
+
+        private void updateContext() {
+            int trim = this.completionContext.getCompletionsTrim();
+            CompletionContext.CompletionMatcher matcher = this.completionContext.getCompletionMatcher();
+            if (trim == this.contextTrim && matcher == this.contextMatcher) return;
+            this.contextTrim = trim;
+            this.contextMatcher = matcher;
+            if (this.completionModifier != null) {
+                CompletionContext modified = new CompletionContext();
+                modified.setCompletionsTrim(trim);
+                modified.setCompletionMatcher(matcher);
+                this.completionModifier.accept(modified);
+                trim = modified.getCompletionsTrim();
+                matcher = modified.getCompletionMatcher();
+            }
+            this.trim = trim;
+            this.matcher = matcher;
+            this.trimmedCheck = this.check.substring(trim);
         }
-        return 0;
     }
 
 }
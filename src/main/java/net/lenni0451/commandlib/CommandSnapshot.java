@@ -0,0 +1,175 @@
+package net.lenni0451.commandlib;
+
+import net.lenni0451.commandlib.nodes.StringNode;
+import net.lenni0451.commandlib.utils.comparator.ArgumentComparator;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * An immutable snapshot of all commands registered in a {@link CommandExecutor}.<br>
+ * Registering or unregistering commands creates a new snapshot, so a snapshot can be used by multiple threads without locking.<br>
+ * A snapshot can be pinned using {@link CommandExecutor#snapshot()} to use the same commands for multiple calls.
+ *
+ * @param <E> The type of the executor
+ */
+public class CommandSnapshot<E> {
+
+    private final ArgumentComparator argumentComparator;
+    private final Map<StringNode<E>, ChainTree<E>> chains;
+    private final Map<String, StringNode<E>> rootIndex;
+    /**
+     * The sorted index of the root names, it is only created when a prefix is looked up.<br>
+     * Creating it multiple times by different threads is harmless because the index is immutable.
+     */
+    private volatile PrefixIndex<E> prefixIndex;
+
+    CommandSnapshot(final ArgumentComparator argumentComparator) {
+        this(argumentComparator, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    private CommandSnapshot(final ArgumentComparator argumentComparator, final Map<StringNode<E>, ChainTree<E>> chains, final Map<String, StringNode<E>> rootIndex) {
+        this.argumentComparator = argumentComparator;
+        this.chains = chains;
+        this.rootIndex = rootIndex;
+    }
+
+    /**
+     * @return The argument comparator used by this snapshot
+     */
+    public ArgumentComparator getArgumentComparator() {
+        return this.argumentComparator;
+    }
+
+    /**
+     * @return All registered root nodes in the order they were registered
+     */
+    public Set<StringNode<E>> getRoots() {
+        return this.chains.keySet();
+    }
+
+    /**
+     * Get the chain tree of a registered root node.
+     *
+     * @param root The root node
+     * @return The chain tree or {@code null} if the root node is not registered
+     */
+    @Nullable
+    public ChainTree<E> getTree(final StringNode<E> root) {
+        return this.chains.get(root);
+    }
+
+    /**
+     * Get the root node with the given name.<br>
+     * The name is looked up in an index if supported by the argument comparator (See {@link ArgumentComparator#supportsFolding()}).
+     *
+     * @param name The name of the root node
+     * @return The root node or {@code null} if no root node with the given name is registered
+     */
+    @Nullable
+    public StringNode<E> getRoot(final String name) {
+        if (!this.argumentComparator.supportsFolding()) {
+            for (StringNode<E> root : this.chains.keySet()) {
+                if (this.argumentComparator.compare(root.name(), name)) return root;
+            }
+            return null;
+        }
+        return this.rootIndex.get(this.argumentComparator.fold(name));
+    }
+
+    /**
+     * Get all root nodes with a name starting with the given prefix.<br>
+     * The names are looked up in a sorted index if supported by the argument comparator (See {@link ArgumentComparator#supportsPrefixLookup()}).
+     *
+     * @param prefix The prefix of the names
+     * @return The root nodes in the order they were registered
+     */
+    public List<StringNode<E>> getRootsStartingWith(final String prefix) {
+        if (!this.argumentComparator.supportsPrefixLookup()) {
+            List<StringNode<E>> roots = new ArrayList<>();
+            for (StringNode<E> root : this.chains.keySet()) {
+                if (this.argumentComparator.startsWith(root.name(), prefix)) roots.add(root);
+            }
+            return roots;
+        }
+        PrefixIndex<E> prefixIndex = this.prefixIndex;
+        if (prefixIndex == null) this.prefixIndex = prefixIndex = new PrefixIndex<>(this.argumentComparator, this.chains.keySet());
+        return prefixIndex.startingWith(this.argumentComparator.fold(prefix));
+    }
+
+    /**
+     * Create a new snapshot with the given root node registered.<br>
+     * Root nodes with the same name are replaced.
+     *
+     * @param root The root node
+     * @param tree The chain tree of the root node
+     * @return The new snapshot
+     */
+    CommandSnapshot<E> with(final StringNode<E> root, final ChainTree<E> tree) {
+        Map<StringNode<E>, ChainTree<E>> chains = new LinkedHashMap<>(this.chains);
+        Map<String, StringNode<E>> rootIndex = new HashMap<>(this.rootIndex);
+        chains.keySet().removeIf(node -> this.argumentComparator.compare(node.name(), root.name()));
+        rootIndex.values().removeIf(node -> !chains.containsKey(node));
+        chains.put(root, tree);
+        rootIndex.put(this.argumentComparator.fold(root.name()), root);
+        return new CommandSnapshot<>(this.argumentComparator, Collections.unmodifiableMap(chains), Collections.unmodifiableMap(rootIndex));
+    }
+
+    /**
+     * Create a new snapshot without the root nodes with the given name.
+     *
+     * @param name The name of the root node
+     * @return The new snapshot or this snapshot if no root node was removed
+     */
+    CommandSnapshot<E> without(final String name) {
+        Map<StringNode<E>, ChainTree<E>> chains = new LinkedHashMap<>(this.chains);
+        if (!chains.keySet().removeIf(node -> this.argumentComparator.compare(node.name(), name))) return this;
+        Map<String, StringNode<E>> rootIndex = new HashMap<>(this.rootIndex);
+        rootIndex.values().removeIf(node -> !chains.containsKey(node));
+        return new CommandSnapshot<>(this.argumentComparator, Collections.unmodifiableMap(chains), Collections.unmodifiableMap(rootIndex));
+    }
+
+
+    /**
+     * The folded root names sorted for binary searching names by their prefix.
+     *
+     * @param <E> The type of the executor
+     */
+    private static class PrefixIndex<E> {
+        private final String[] keys;
+        private final int[] positions;
+        private final List<StringNode<E>> roots;
+
+        private PrefixIndex(final ArgumentComparator argumentComparator, final Collection<StringNode<E>> roots) {
+            this.roots = new ArrayList<>(roots);
+            String[] folded = new String[this.roots.size()];
+            Integer[] order = new Integer[folded.length];
+            for (int i = 0; i < folded.length; i++) {
+                folded[i] = argumentComparator.fold(this.roots.get(i).name());
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(i -> folded[i]));
+            this.keys = new String[folded.length];
+            this.positions = new int[folded.length];
+            for (int i = 0; i < folded.length; i++) {
+                this.keys[i] = folded[order[i]];
+                this.positions[i] = order[i];
+            }
+        }
+
+        private List<StringNode<E>> startingWith(final String foldedPrefix) {
+            int from = Arrays.binarySearch(this.keys, foldedPrefix);
+            if (from < 0) from = -from - 1;
+            int to = from;
+            while (to < this.keys.length && this.keys[to].startsWith(foldedPrefix)) to++;
+            if (from == to) return Collections.emptyList();
+
+            int[] positions = Arrays.copyOfRange(this.positions, from, to);
+            Arrays.sort(positions);
+            List<StringNode<E>> roots = new ArrayList<>(positions.length);
+            for (int position : positions) roots.add(this.roots.get(position));
+            return roots;
+        }
+    }
+
+}
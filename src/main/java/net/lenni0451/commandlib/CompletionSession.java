@@ -0,0 +1,70 @@
+package net.lenni0451.commandlib;
+
+import net.lenni0451.commandlib.contexts.ElementCheckpoints;
+
+/**
+ * A session for requesting completions while the input is typed.<br>
+ * The session remembers the last input and the checkpoints of list and array arguments.
+ * When the next input only appends to or removes characters from the end of the last input,
+ * the elements before the changed part are not parsed again.<br>
+ * Sessions are not thread-safe. A session should be used for a single input field (e.g. one per player or console).
+ *
+ * @param <E> The type of the executor
+ * @see CommandExecutor#createCompletionSession()
+ */
+public class CompletionSession<E> {
+
+    private final CommandExecutor<E> commandExecutor;
+    private final ElementCheckpoints checkpoints = new ElementCheckpoints();
+    private CommandSnapshot<E> lastSnapshot;
+    private E lastExecutor;
+    private String lastInput;
+
+    CompletionSession(final CommandExecutor<E> commandExecutor) {
+        this.commandExecutor = commandExecutor;
+    }
+
+    /**
+     * @return The command executor this session was created by
+     */
+    public CommandExecutor<E> getCommandExecutor() {
+        return this.commandExecutor;
+    }
+
+    /**
+     * Remove all remembered checkpoints.<br>
+     * The next call parses the whole input again.
+     */
+    public void reset() {
+        this.checkpoints.clear();
+        this.lastSnapshot = null;
+        this.lastExecutor = null;
+        this.lastInput = null;
+    }
+
+    /**
+     * Update the session for the next input.<br>
+     * Checkpoints after the changed part of the input are removed.
+     * All checkpoints are removed if the commands or the executor changed.
+     *
+     * @param snapshot The snapshot used for the next call
+     * @param executor The executor of the next call
+     * @param input    The next input
+     * @return The checkpoints for the next input
+     */
+    ElementCheckpoints update(final CommandSnapshot<E> snapshot, final E executor, final CharSequence input) {
+        if (snapshot != this.lastSnapshot || executor != this.lastExecutor || this.lastInput == null) {
+            this.checkpoints.clear();
+        } else {
+            int length = Math.min(this.lastInput.length(), input.length());
+            int unchanged = 0;
+            while (unchanged < length && this.lastInput.charAt(unchanged) == input.charAt(unchanged)) unchanged++;
+            this.checkpoints.retain(unchanged);
+        }
+        this.lastSnapshot = snapshot;
+        this.lastExecutor = executor;
+        this.lastInput = input.toString();
+        return this.checkpoints;
+    }
+
+}
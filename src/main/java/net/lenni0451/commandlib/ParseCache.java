@@ -0,0 +1,178 @@
+package net.lenni0451.commandlib;
+
+import net.lenni0451.commandlib.nodes.ArgumentNode;
+import net.lenni0451.commandlib.utils.Primitive;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cache for the parsed values of argument nodes at a specific reader cursor.<br>
+ * Argument nodes shared by multiple chains (e.g. redirect targets) are only parsed once per cursor position.<br>
+ * A cache must only be used for a single input and execution context. It can be reused for another input after calling {@link #clear()}.
+ */
+public class ParseCache {
+
+    private final Map<ArgumentNode<?, ?>, Entry> entries = new IdentityHashMap<>();
+    private final List<Entry> pool = new ArrayList<>();
+    private int pooled;
+    private final List<ChainTree.Frame> frames = new ArrayList<>();
+    private int frameDepth;
+
+    /**
+     * Get the cached result of the given node at the given cursor.
+     *
+     * @param node   The argument node
+     * @param cursor The reader cursor at the start of the argument
+     * @return The cached entry or {@code null} if the node has not been parsed at the given cursor
+     */
+    @Nullable
+    public Entry get(final ArgumentNode<?, ?> node, final int cursor) {
+        Entry entry = this.entries.get(node);
+        while (entry != null && entry.cursor != cursor) entry = entry.next;
+        return entry;
+    }
+
+    /**
+     * Cache the result of the given node at the given cursor.
+     *
+     * @param node   The argument node
+     * @param cursor The reader cursor at the start of the argument
+     * @param end    The reader cursor after parsing the argument
+     * @param value  The parsed value
+     * @param cause  The cause of the failure or {@code null} if the argument was parsed successfully (See {@link ChainFailure#caused(Object, int, int, String, String)})
+     * @return The cached entry
+     */
+    public Entry put(final ArgumentNode<?, ?> node, final int cursor, final int end, @Nullable final Object value, @Nullable final Object cause) {
+        return this.put(node, cursor, end, value, 0, cause);
+    }
+
+    /**
+     * Cache the result of the given node at the given cursor.
+     *
+     * @param node          The argument node
+     * @param cursor        The reader cursor at the start of the argument
+     * @param end           The reader cursor after parsing the argument
+     * @param value         The parsed value or a {@link Primitive} marker
+     * @param primitiveBits The bits of the value if it is a primitive marker
+     * @param cause         The cause of the failure or {@code null} if the argument was parsed successfully (See {@link ChainFailure#caused(Object, int, int, String, String)})
+     * @return The cached entry
+     */
+    public Entry put(final ArgumentNode<?, ?> node, final int cursor, final int end, @Nullable final Object value, final long primitiveBits, @Nullable final Object cause) {
+        Entry entry;
+        if (this.pooled < this.pool.size()) {
+            entry = this.pool.get(this.pooled);
+        } else {
+            entry = new Entry();
+            this.pool.add(entry);
+        }
+        this.pooled++;
+        entry.set(cursor, end, value, primitiveBits, cause, this.entries.get(node));
+        this.entries.put(node, entry);
+        return entry;
+    }
+
+    /**
+     * Remove all cached entries.<br>
+     * The entries are reused for the next values, so entries must not be used after the cache has been cleared.
+     */
+    public void clear() {
+        this.entries.clear();
+        for (int i = 0; i < this.pooled; i++) this.pool.get(i).set(0, 0, null, 0, null, null);
+        this.pooled = 0;
+        this.frameDepth = 0;
+    }
+
+    /**
+     * Get the buffers for parsing a chain tree.<br>
+     * Every call must be followed by a call to {@link #exitFrame()} once the tree has been parsed.
+     * Trees parsed while the frame is used (e.g. redirect targets) get their own frame.
+     *
+     * @return The frame for the next chain tree
+     */
+    ChainTree.Frame enterFrame() {
+        if (this.frameDepth == this.frames.size()) this.frames.add(new ChainTree.Frame());
+        return this.frames.get(this.frameDepth++);
+    }
+
+    /**
+     * Release the frame returned by the last call to {@link #enterFrame()}.
+     */
+    void exitFrame() {
+        this.frameDepth--;
+    }
+
+
+    /**
+     * The cached result of parsing an argument node.
+     */
+    public static class Entry {
+        private int cursor;
+        private int end;
+        private Object value;
+        private long primitiveBits;
+        private Object cause;
+        private Entry next;
+
+        private Entry() {
+        }
+
+        private void set(final int cursor, final int end, @Nullable final Object value, final long primitiveBits, @Nullable final Object cause, @Nullable final Entry next) {
+            this.cursor = cursor;
+            this.end = end;
+            this.value = value;
+            this.primitiveBits = primitiveBits;
+            this.cause = cause;
+            this.next = next;
+        }
+
+        /**
+         * @return The reader cursor after parsing the argument
+         */
+        public int getEnd() {
+            return this.end;
+        }
+
+        /**
+         * @return The parsed value or {@code null} if the argument could not be parsed
+         */
+        @Nullable
+        public Object getValue() {
+            return Primitive.box(this.value, this.primitiveBits);
+        }
+
+        /**
+         * @return The parsed value, a {@link Primitive} marker or {@code null} if the argument could not be parsed
+         */
+        @Nullable
+        public Object getRawValue() {
+            return this.value;
+        }
+
+        /**
+         * @return The bits of the parsed value if it is a primitive marker
+         */
+        public long getPrimitiveBits() {
+            return this.primitiveBits;
+        }
+
+        /**
+         * @return The cause of the failure or {@code null} if the argument was parsed successfully
+         */
+        @Nullable
+        public Object getCause() {
+            return this.cause;
+        }
+
+        /**
+         * @return If the argument could not be parsed
+         */
+        public boolean hasFailed() {
+            return this.cause != null;
+        }
+    }
+
+}
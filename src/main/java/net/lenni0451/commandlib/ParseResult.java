@@ -16,16 +16,16 @@ public class ParseResult<E> {
     private final List<FailedChain<E>> failedChains;
 
     public ParseResult(final List<ParsedChain<E>> parsedChains, final List<FailedChain<E>> failedChains) {
-        this.parsedChains = parsedChains;
-        this.failedChains = failedChains;
+        this.parsedChains = Collections.unmodifiableList(parsedChains);
+        this.failedChains = Collections.unmodifiableList(failedChains);
     }
 
     public List<ParsedChain<E>> getParsedChains() {
-        return Collections.unmodifiableList(this.parsedChains);
+        return this.parsedChains;
     }
 
     public List<FailedChain<E>> getFailedChains() {
-        return Collections.unmodifiableList(this.failedChains);
+        return this.failedChains;
     }
 
 
@@ -49,19 +49,35 @@ public class ParseResult<E> {
 
     public static class FailedChain<E> {
         private final ArgumentChain<E> argumentChain;
-        private final ChainExecutionException executionException;
+        private final ChainFailure failure;
 
         public FailedChain(final ArgumentChain<E> argumentChain, final ChainExecutionException executionException) {
+            this(argumentChain, ChainFailure.of(executionException));
+        }
+
+        public FailedChain(final ArgumentChain<E> argumentChain, final ChainFailure failure) {
             this.argumentChain = argumentChain;
-            this.executionException = executionException;
+            this.failure = failure;
         }
 
         public ArgumentChain<E> getArgumentChain() {
             return this.argumentChain;
         }
 
+        /**
+         * @return The details of the failure without creating an exception
+         */
+        public ChainFailure getFailure() {
+            return this.failure;
+        }
+
+        /**
+         * The exception is created when it is requested for the first time.
+         *
+         * @return The exception describing the failure
+         */
         public ChainExecutionException getExecutionException() {
-            return this.executionException;
+            return this.failure.toException();
         }
     }
 
@@ -0,0 +1,103 @@
+package net.lenni0451.commandlib;
+
+import net.lenni0451.commandlib.contexts.ExecutionContext;
+import net.lenni0451.commandlib.utils.StringReader;
+import net.lenni0451.commandlib.utils.comparator.ArgumentComparator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reusable buffers for executing commands.<br>
+ * A session keeps the string reader, execution context, parse cache and result lists of a call,
+ * so executing many commands with the same session does not allocate new buffers for every call.<br>
+ * Sessions are not thread-safe. They can be pooled per thread (e.g. using a {@link ThreadLocal}).<br>
+ * The execution context is reused for the next call, so command executors must not keep a reference to it.
+ *
+ * @param <E> The type of the executor
+ * @see CommandExecutor#createSession()
+ */
+public class ParseSession<E> {
+
+    private final CommandExecutor<E> commandExecutor;
+    private StringReader reader;
+    private final ExecutionContext<E> executionContext;
+    private final ParseCache cache = new ParseCache();
+    private final List<ParseResult.ParsedChain<E>> parsedChains = new ArrayList<>();
+    private final List<ParseResult.FailedChain<E>> failedChains = new ArrayList<>();
+    private final ParseResult<E> parseResult = new ParseResult<>(this.parsedChains, this.failedChains);
+    private boolean active;
+
+    ParseSession(final CommandExecutor<E> commandExecutor, final ArgumentComparator argumentComparator) {
+        this.commandExecutor = commandExecutor;
+        this.executionContext = new ExecutionContext<>(argumentComparator, null, true);
+    }
+
+    /**
+     * @return The command executor this session was created by
+     */
+    public CommandExecutor<E> getCommandExecutor() {
+        return this.commandExecutor;
+    }
+
+    /**
+     * @return If the session is currently used by a call
+     */
+    public boolean isActive() {
+        return this.active;
+    }
+
+    /**
+     * Start a new call using this session.
+     *
+     * @param executor    The executor of the call
+     * @param isExecution If the call executes a command
+     */
+    void begin(final E executor, final boolean isExecution) {
+        if (this.active) throw new IllegalStateException("The session is already in use");
+        this.active = true;
+        this.executionContext.reset(executor, isExecution);
+        this.cache.clear();
+        this.parsedChains.clear();
+        this.failedChains.clear();
+    }
+
+    /**
+     * End the current call and release the references to the last input.
+     */
+    void end() {
+        if (this.reader != null) this.reader.reset("");
+        this.executionContext.reset(null, true);
+        this.cache.clear();
+        this.parsedChains.clear();
+        this.failedChains.clear();
+        this.active = false;
+    }
+
+    StringReader getReader(final CharSequence command) {
+        if (this.reader == null) this.reader = new StringReader(command);
+        else this.reader.reset(command);
+        return this.reader;
+    }
+
+    ExecutionContext<E> getExecutionContext() {
+        return this.executionContext;
+    }
+
+    ParseCache getCache() {
+        return this.cache;
+    }
+
+    List<ParseResult.ParsedChain<E>> getParsedChains() {
+        return this.parsedChains;
+    }
+
+    List<ParseResult.FailedChain<E>> getFailedChains() {
+        return this.failedChains;
+    }
+
+    ParseResult<E> getParseResult() {
+        return this.parseResult;
+    }
+
+}
@@ -0,0 +1,157 @@
+package net.lenni0451.commandlib;
+
+import net.lenni0451.commandlib.contexts.CompletionContext;
+import net.lenni0451.commandlib.contexts.ExecutionContext;
+import net.lenni0451.commandlib.nodes.ArgumentNode;
+import net.lenni0451.commandlib.utils.StringReader;
+import net.lenni0451.commandlib.utils.comparator.ArgumentComparator;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Collects the completions of asynchronous completion providers until a deadline.<br>
+ * All providers are started while the completions are collected and run in parallel.
+ * When the deadline is reached, only the completions of the providers which have completed are used.<br>
+ * Providers which completed exceptionally, threw an exception or returned no stage are ignored.
+ */
+class PendingCompletions<E> {
+
+    private final ArgumentComparator argumentComparator;
+    private final Set<Completion> completions = new HashSet<>();
+    private final List<Request> requests = new ArrayList<>();
+
+    PendingCompletions(final ArgumentComparator argumentComparator) {
+        this.argumentComparator = argumentComparator;
+    }
+
+    /**
+     * Add a completion which is already available.
+     *
+     * @param completion The completion
+     * @return Always {@code true}
+     */
+    boolean add(final Completion completion) {
+        this.completions.add(completion);
+        return true;
+    }
+
+    /**
+     * Start the asynchronous completions provider of an argument.<br>
+     * The provider receives its own copy of the execution context and its own string reader with a copy of the input,
+     * so it can still use them after the completions of other arguments have been collected.<br>
+     * A provider which throws an exception or returns no stage is handled like a provider which completed exceptionally.
+     *
+     * @param argument         The argument
+     * @param cursor           The reader cursor at the start of the argument
+     * @param executionContext The execution context
+     * @param reader           The string reader
+     */
+    void request(final ArgumentNode<E, ?> argument, final int cursor, final ExecutionContext<E> executionContext, final StringReader reader) {
+        CompletionContext completionContext = new CompletionContext();
+        if (argument.completionModifier() != null) argument.completionModifier().accept(completionContext);
+        reader.setCursor(cursor);
+        String check = reader.peekRemaining();
+        StringReader providerReader = new StringReader(reader.getString());
+        providerReader.setCursor(cursor);
+
+        CompletableFuture<? extends Collection<String>> future;
+        try {
+            CompletionStage<? extends Collection<String>> stage = argument.asyncCompletionsProvider().provide(executionContext.copy(), providerReader);
+            if (stage == null) throw new NullPointerException("The completions provider of argument '" + argument.name() + "' returned no stage");
+            future = stage.toCompletableFuture();
+        } catch (RuntimeException e) {
+            CompletableFuture<Collection<String>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            future = failed;
+        }
+        this.requests.add(new Request(future, completionContext, cursor, check));
+    }
+
+    /**
+     * Wait for all started providers until the deadline is reached.<br>
+     * The returned future is completed with the sorted completions as soon as all providers have completed or the deadline is reached.
+     *
+     * @param deadline The maximum time to wait for the providers
+     * @param sorter   The function sorting the completions
+     * @return The future completing with the sorted completions
+     */
+    CompletableFuture<Set<Completion>> finish(final Duration deadline, final Function<Set<Completion>, Set<Completion>> sorter) {
+        if (this.requests.isEmpty()) return CompletableFuture.completedFuture(sorter.apply(this.completions));
+
+        CompletableFuture<Set<Completion>> result = new CompletableFuture<>();
+        AtomicBoolean finished = new AtomicBoolean();
+        Runnable complete = () -> {
+            if (!finished.compareAndSet(false, true)) return;
+            try {
+                result.complete(sorter.apply(this.collect()));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        };
+        ScheduledFuture<?> timeout = Scheduler.INSTANCE.schedule(complete, deadline.toNanos(), TimeUnit.NANOSECONDS);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[this.requests.size()];
+        for (int i = 0; i < futures.length; i++) futures[i] = this.requests.get(i).future;
+        CompletableFuture.allOf(futures).whenComplete((v, t) -> {
+            timeout.cancel(false);
+            complete.run();
+        });
+        return result;
+    }
+
+    private Set<Completion> collect() {
+        Set<Completion> completions = new HashSet<>(this.completions);
+        for (Request request : this.requests) {
+            if (!request.future.isDone() || request.future.isCompletedExceptionally()) continue;
+            Collection<String> provided = request.future.join();
+            if (provided == null || provided.isEmpty()) continue;
+            int trim = request.completionContext.getCompletionsTrim();
+            String trimmedCheck = request.check.substring(trim);
+            for (String completion : provided) {
+                if (!request.completionContext.getCompletionMatcher().match(this.argumentComparator, completion, trimmedCheck)) continue;
+                completions.add(new Completion(request.cursor + trim, completion));
+            }
+        }
+        return completions;
+    }
+
+
+    private static class Request {
+        private final CompletableFuture<? extends Collection<String>> future;
+        private final CompletionContext completionContext;
+        private final int cursor;
+        private final String check;
+
+        private Request(final CompletableFuture<? extends Collection<String>> future, final CompletionContext completionContext, final int cursor, final String check) {
+            this.future = future;
+            this.completionContext = completionContext;
+            this.cursor = cursor;
+            this.check = check;
+        }
+    }
+
+    /**
+     * The scheduler used for the deadlines.<br>
+     * It is only created when the first deadline is scheduled.
+     */
+    private static class Scheduler {
+        private static final ScheduledThreadPoolExecutor INSTANCE;
+
+        static {
+            INSTANCE = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "CommandLib Completions Deadline");
+                thread.setDaemon(true);
+                return thread;
+            });
+            INSTANCE.setRemoveOnCancelPolicy(true);
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package net.lenni0451.commandlib;
+
+import net.lenni0451.commandlib.utils.comparator.CompletionsComparator;
+
+import java.util.*;
+
+/**
+ * Collects the first completions in the order of a comparator without sorting all completions.<br>
+ * The best completions are kept in a max-heap, so every offered completion only has to be compared with the worst kept completion.<br>
+ * The completions are classified once when they are offered and the sort keys are kept next to them in the heap.<br>
+ * Completions which are equal for the comparator are ordered by the time they were offered.
+ */
+class TopCompletions {
+
+    private final CompletionsComparator comparator;
+    private final CompletionsComparator.SortKey[] heap;
+    private final long[] order;
+    private final Set<Completion> kept = new HashSet<>();
+    private int size;
+    private long offered;
+
+    TopCompletions(final CompletionsComparator comparator, final int limit) {
+        this.comparator = comparator;
+        this.heap = new CompletionsComparator.SortKey[limit];
+        this.order = new long[limit];
+    }
+
+    /**
+     * Offer a completion.<br>
+     * Completions which are already kept are ignored.
+     *
+     * @param completion The completion
+     * @return {@code false} if the completion and all completions sorted after it can not be kept
+     */
+    boolean offer(final Completion completion) {
+        if (this.kept.contains(completion)) return true;
+        CompletionsComparator.SortKey key = this.comparator.key(completion);
+        long order = this.offered++;
+        if (this.size < this.heap.length) {
+            this.kept.add(completion);
+            this.siftUp(this.size++, key, order);
+            return true;
+        }
+        //The offered completion is equal to or after the worst kept completion
+        if (this.comparator.compare(key, this.heap[0]) >= 0) return false;
+        this.kept.remove(this.heap[0].getCompletion());
+        this.kept.add(completion);
+        this.siftDown(0, key, order);
+        return true;
+    }
+
+    /**
+     * @return The kept completions in sorted order
+     */
+    List<Completion> getSorted() {
+        Integer[] indices = new Integer[this.size];
+        for (int i = 0; i < indices.length; i++) indices[i] = i;
+        Arrays.sort(indices, (i1, i2) -> this.compare(this.heap[i1], this.order[i1], this.heap[i2], this.order[i2]));
+        List<Completion> sorted = new ArrayList<>(this.size);
+        for (int index : indices) sorted.add(this.heap[index].getCompletion());
+        return sorted;
+    }
+
+    private void siftUp(final int start, final CompletionsComparator.SortKey key, final long order) {
+        int index = start;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (this.compare(key, order, this.heap[parent], this.order[parent]) <= 0) break;
+            this.heap[index] = this.heap[parent];
+            this.order[index] = this.order[parent];
+            index = parent;
+        }
+        this.heap[index] = key;
+        this.order[index] = order;
+    }
+
+    private void siftDown(final int start, final CompletionsComparator.SortKey key, final long order) {
+        int index = start;
+        int half = this.size >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            int right = child + 1;
+            if (right < this.size && this.compare(this.heap[right], this.order[right], this.heap[child], this.order[child]) > 0) child = right;
+            if (this.compare(key, order, this.heap[child], this.order[child]) >= 0) break;
+            this.heap[index] = this.heap[child];
+            this.order[index] = this.order[child];
+            index = child;
+        }
+        this.heap[index] = key;
+        this.order[index] = order;
+    }
+
+    private int compare(final CompletionsComparator.SortKey k1, final long order1, final CompletionsComparator.SortKey k2, final long order2) {
+        int result = this.comparator.compare(k1, k2);
+        if (result != 0) return result;
+        return Long.compare(order1, order2);
+    }
+
+}
@@ -5,6 +5,8 @@ import net.lenni0451.commandlib.types.ArgumentType;
 import net.lenni0451.commandlib.types.DynamicType;
 import net.lenni0451.commandlib.types.DynamicType.BiParser;
 import net.lenni0451.commandlib.types.DynamicType.SingleParser;
+import net.lenni0451.commandlib.types.IntArgumentType;
+import net.lenni0451.commandlib.types.LongArgumentType;
 import net.lenni0451.commandlib.utils.Util;
 import net.lenni0451.commandlib.utils.comparator.ArgumentComparator;
 
@@ -136,6 +138,60 @@ public interface ArgumentBuilder<E> {
         return new ArrayNode<>(name, description, type);
     }
 
+    /**
+     * Create a new int array argument node.<br>
+     * The argument will be parsed by the given {@link IntArgumentType} without boxing the values.<br>
+     * The argument can be repeated multiple times. It is separated by a comma.
+     *
+     * @param name The name of the argument
+     * @param type The argument type
+     * @return The created node
+     */
+    default IntArrayNode<E> intArray(final String name, final IntArgumentType<E> type) {
+        return new IntArrayNode<>(name, type);
+    }
+
+    /**
+     * Create a new int array argument node.<br>
+     * The argument will be parsed by the given {@link IntArgumentType} without boxing the values.<br>
+     * The argument can be repeated multiple times. It is separated by a comma.
+     *
+     * @param name        The name of the argument
+     * @param description The description of the argument
+     * @param type        The argument type
+     * @return The created node
+     */
+    default IntArrayNode<E> intArray(final String name, @Nullable final String description, final IntArgumentType<E> type) {
+        return new IntArrayNode<>(name, description, type);
+    }
+
+    /**
+     * Create a new long array argument node.<br>
+     * The argument will be parsed by the given {@link LongArgumentType} without boxing the values.<br>
+     * The argument can be repeated multiple times. It is separated by a comma.
+     *
+     * @param name The name of the argument
+     * @param type The argument type
+     * @return The created node
+     */
+    default LongArrayNode<E> longArray(final String name, final LongArgumentType<E> type) {
+        return new LongArrayNode<>(name, type);
+    }
+
+    /**
+     * Create a new long array argument node.<br>
+     * The argument will be parsed by the given {@link LongArgumentType} without boxing the values.<br>
+     * The argument can be repeated multiple times. It is separated by a comma.
+     *
+     * @param name        The name of the argument
+     * @param description The description of the argument
+     * @param type        The argument type
+     * @return The created node
+     */
+    default LongArrayNode<E> longArray(final String name, @Nullable final String description, final LongArgumentType<E> type) {
+        return new LongArrayNode<>(name, description, type);
+    }
+
     /**
      * Create a new string array argument node.<br>
      * The given executor receives the whole string array as argument.<br>
@@ -149,7 +149,7 @@ public class LineBuilder<E> {
      */
     public <R> ArgumentNode<E, R> executes(final Consumer<ExecutionContext<E>> consumer) {
         return this.build((def, node) -> node.executes(ctx -> {
-            for (LineNode<E, R> lineNode : def) ctx.getArguments().put(lineNode.name, lineNode.defaultValue);
+            for (LineNode<E, R> lineNode : def) ctx.addArgument(lineNode.name, lineNode.defaultValue);
             consumer.accept(ctx);
         }));
     }
@@ -175,7 +175,7 @@ public class LineBuilder<E> {
      */
     public <R> ArgumentNode<E, R> executes(final Function<ExecutionContext<E>, R> function) {
         return this.build((def, node) -> node.executes((Function<ExecutionContext<E>, R>) ctx -> {
-            for (LineNode<E, R> lineNode : def) ctx.getArguments().put(lineNode.name, lineNode.defaultValue);
+            for (LineNode<E, R> lineNode : def) ctx.addArgument(lineNode.name, lineNode.defaultValue);
             return function.apply(ctx);
         }));
     }
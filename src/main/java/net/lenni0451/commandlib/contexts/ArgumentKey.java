@@ -0,0 +1,57 @@
+package net.lenni0451.commandlib.contexts;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A typed handle for getting a parsed argument from an {@link ExecutionContext}.<br>
+ * Every {@link ArgumentLayout} caches the slot of the argument for the key,
+ * so repeated lookups are array loads instead of name lookups, even if the key is used by multiple commands.<br>
+ * Keys should be created once (e.g. as constants) and can be shared between threads.
+ *
+ * @param <T> The type of the argument
+ */
+public final class ArgumentKey<T> {
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    /**
+     * Create a new argument key.
+     *
+     * @param name The name of the argument
+     * @param <T>  The type of the argument
+     * @return The argument key
+     */
+    public static <T> ArgumentKey<T> of(@Nonnull final String name) {
+        return new ArgumentKey<>(name);
+    }
+
+
+    private final String name;
+    private final int id;
+
+    private ArgumentKey(final String name) {
+        this.name = name;
+        this.id = NEXT_ID.getAndUpdate(id -> id == Integer.MAX_VALUE ? id : id + 1);
+    }
+
+    /**
+     * @return The name of the argument
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return The unique id of this key used for caching the slots
+     */
+    int getId() {
+        return this.id;
+    }
+
+    @Override
+    public String toString() {
+        return "ArgumentKey{" + this.name + "}";
+    }
+
+}
@@ -0,0 +1,113 @@
+package net.lenni0451.commandlib.contexts;
+
+import java.util.Arrays;
+
+/**
+ * The slots of the arguments provided by an argument chain.<br>
+ * Every argument name is resolved to a slot index when the chain is built, so the execution context can store the argument values in an array.
+ */
+public final class ArgumentLayout {
+
+    public static final ArgumentLayout EMPTY = new ArgumentLayout(new String[0]);
+    /**
+     * Keys with a higher id are not cached to limit the size of the caches if keys are created dynamically.
+     */
+    private static final int MAX_CACHED_KEYS = 1024;
+    private static final int[] NO_KEY_SLOTS = new int[0];
+
+    /**
+     * Create a layout with the given argument names.<br>
+     * Duplicate names share the slot of their first occurrence.
+     *
+     * @param names The argument names
+     * @return The layout
+     */
+    public static ArgumentLayout of(final String... names) {
+        ArgumentLayout layout = EMPTY;
+        for (String name : names) layout = layout.with(name);
+        return layout;
+    }
+
+
+    private final String[] names;
+    /**
+     * The cached slots of the argument keys indexed by their id.<br>
+     * The values are the slot index + 2, so {@code 0} means not cached and {@code 1} means the layout does not contain the argument.
+     */
+    private volatile int[] keySlots = NO_KEY_SLOTS;
+
+    private ArgumentLayout(final String[] names) {
+        this.names = names;
+    }
+
+    /**
+     * Get a layout containing all slots of this layout and a slot for the given name.<br>
+     * The slot indices of this layout are kept, so values written for this layout can be used with the new layout.
+     *
+     * @param name The argument name
+     * @return The new layout or this layout if it already contains the name
+     */
+    public ArgumentLayout with(final String name) {
+        if (this.indexOf(name) >= 0) return this;
+        String[] names = Arrays.copyOf(this.names, this.names.length + 1);
+        names[this.names.length] = name;
+        return new ArgumentLayout(names);
+    }
+
+    /**
+     * @return The amount of slots
+     */
+    public int size() {
+        return this.names.length;
+    }
+
+    /**
+     * Get the argument name of a slot.
+     *
+     * @param slot The slot index
+     * @return The argument name
+     */
+    public String getName(final int slot) {
+        return this.names[slot];
+    }
+
+    /**
+     * Get the slot index of an argument name.
+     *
+     * @param name The argument name
+     * @return The slot index or {@code -1} if the layout does not contain the name
+     */
+    public int indexOf(final String name) {
+        for (int i = 0; i < this.names.length; i++) {
+            if (this.names[i] == name || this.names[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Get the slot index of an argument key.<br>
+     * The slot is only looked up by its name the first time the key is used with this layout.
+     *
+     * @param key The argument key
+     * @return The slot index or {@code -1} if the layout does not contain the argument
+     */
+    int slot(final ArgumentKey<?> key) {
+        int id = key.getId();
+        int[] keySlots = this.keySlots;
+        if (id < keySlots.length && keySlots[id] != 0) return keySlots[id] - 2;
+        int slot = this.indexOf(key.getName());
+        if (id < MAX_CACHED_KEYS) {
+            //Concurrent updates might lose a cached slot, it is looked up again the next time
+            keySlots = Arrays.copyOf(keySlots, Math.max(keySlots.length, id + 1));
+            keySlots[id] = slot + 2;
+            this.keySlots = keySlots;
+        }
+        return slot;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.names);
+    }
+
+}
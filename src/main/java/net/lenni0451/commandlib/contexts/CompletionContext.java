@@ -3,12 +3,14 @@ package net.lenni0451.commandlib.contexts;
 import net.lenni0451.commandlib.utils.comparator.ArgumentComparator;
 
 /**
- * A context which is used to store information about the completion process.
+ * A context which is used to store information about the completion process.<br>
+ * When completions are streamed, the context has to be configured before the first completion is added.
  */
 public class CompletionContext {
 
     private int completionsTrim = 0;
     private CompletionMatcher completionMatcher = CompletionMatcher.STARTS_WITH;
+    private boolean completionsSorted = false;
 
     /**
      * @return The amount of characters that should be trimmed from the completions
@@ -43,6 +45,23 @@ public class CompletionContext {
         this.completionMatcher = completionMatcher;
     }
 
+    /**
+     * @return If the completions have been added in sorted order
+     */
+    public boolean isCompletionsSorted() {
+        return this.completionsSorted;
+    }
+
+    /**
+     * Set if the completions have been added in the order of the {@link net.lenni0451.commandlib.utils.comparator.CompletionsComparator}.<br>
+     * When only the first completions are requested, the remaining completions of sorted arguments are skipped.
+     *
+     * @param completionsSorted If the completions have been added in sorted order
+     */
+    public void setCompletionsSorted(final boolean completionsSorted) {
+        this.completionsSorted = completionsSorted;
+    }
+
 
     public enum CompletionMatcher {
         STARTS_WITH(ArgumentComparator::startsWith),
@@ -0,0 +1,172 @@
+package net.lenni0451.commandlib.contexts;
+
+import net.lenni0451.commandlib.utils.StringReader;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Checkpoints of arguments consisting of multiple elements (e.g. lists and arrays).<br>
+ * A checkpoint is stored after every element followed by a separator. When the same input is parsed again,
+ * the argument can resume at the last checkpoint instead of parsing all elements again.<br>
+ * The checkpoints are kept between multiple inputs, only checkpoints after the changed part of the input are removed (See {@link #retain(int)}).
+ */
+public class ElementCheckpoints {
+
+    private final Map<Object, Elements> elements = new IdentityHashMap<>();
+
+    /**
+     * Get the checkpoints of an argument.
+     *
+     * @param argument The argument
+     * @param start    The reader cursor at the start of the argument
+     * @return The checkpoints or {@code null} if the argument has no checkpoints at the given cursor
+     */
+    @Nullable
+    public Elements get(final Object argument, final int start) {
+        Elements elements = this.elements.get(argument);
+        if (elements == null || elements.start != start || elements.size == 0) return null;
+        return elements;
+    }
+
+    /**
+     * Get the checkpoints of an argument to add new checkpoints.<br>
+     * Existing checkpoints at a different cursor are removed.
+     *
+     * @param argument The argument
+     * @param start    The reader cursor at the start of the argument
+     * @return The checkpoints
+     */
+    public Elements getOrCreate(final Object argument, final int start) {
+        Elements elements = this.elements.get(argument);
+        if (elements == null) {
+            elements = new Elements(start);
+            this.elements.put(argument, elements);
+        } else if (elements.start != start) {
+            elements.start = start;
+            elements.truncate(0);
+        }
+        return elements;
+    }
+
+    /**
+     * Skip all elements of an argument which have been parsed before.<br>
+     * The cursor of the reader is set to the last checkpoint if there is one.
+     *
+     * @param argument     The argument
+     * @param stringReader The string reader at the start of the argument
+     * @return The checkpoints to add new checkpoints to
+     */
+    public Elements resume(final Object argument, final StringReader stringReader) {
+        Elements elements = this.getOrCreate(argument, stringReader.getCursor());
+        if (elements.size > 0) stringReader.setCursor(elements.cursors[elements.size - 1]);
+        return elements;
+    }
+
+    /**
+     * Remove all checkpoints which depend on characters after the given length.<br>
+     * This has to be called when the input has changed, the given length is the length of the unchanged start of the input.
+     *
+     * @param length The length of the unchanged input
+     */
+    public void retain(final int length) {
+        Iterator<Elements> it = this.elements.values().iterator();
+        while (it.hasNext()) {
+            Elements elements = it.next();
+            int size = elements.size;
+            while (size > 0 && elements.cursors[size - 1] > length) size--;
+            if (size == 0) it.remove();
+            else elements.truncate(size);
+        }
+    }
+
+    /**
+     * Remove all checkpoints.
+     */
+    public void clear() {
+        this.elements.clear();
+    }
+
+
+    /**
+     * The checkpoints of a single argument.
+     */
+    public static class Elements {
+        private int start;
+        private int size;
+        private int[] elementStarts = new int[8];
+        private int[] cursors = new int[8];
+        private Object[] values = new Object[8];
+
+        private Elements(final int start) {
+            this.start = start;
+        }
+
+        /**
+         * @return The amount of checkpoints
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Get the reader cursor at the start of an element.
+         *
+         * @param index The index of the checkpoint
+         * @return The reader cursor
+         */
+        public int getElementStart(final int index) {
+            return this.elementStarts[index];
+        }
+
+        /**
+         * Get the reader cursor after the separator following an element.
+         *
+         * @param index The index of the checkpoint
+         * @return The reader cursor
+         */
+        public int getCursor(final int index) {
+            return this.cursors[index];
+        }
+
+        /**
+         * Get the parsed value of an element.
+         *
+         * @param index The index of the checkpoint
+         * @return The parsed value
+         */
+        public Object getValue(final int index) {
+            return this.values[index];
+        }
+
+        /**
+         * Add a checkpoint after the last checkpoint.<br>
+         * Checkpoints which already exist are not added again.
+         *
+         * @param index        The index of the element
+         * @param elementStart The reader cursor at the start of the element
+         * @param cursor       The reader cursor after the separator following the element
+         * @param value        The parsed value of the element
+         */
+        public void add(final int index, final int elementStart, final int cursor, final Object value) {
+            if (index != this.size) return;
+            if (this.size == this.cursors.length) {
+                this.elementStarts = Arrays.copyOf(this.elementStarts, this.size * 2);
+                this.cursors = Arrays.copyOf(this.cursors, this.size * 2);
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.elementStarts[this.size] = elementStart;
+            this.cursors[this.size] = cursor;
+            this.values[this.size++] = value;
+        }
+
+        private void truncate(final int size) {
+            Arrays.fill(this.values, size, this.size, null);
+            this.size = size;
+        }
+    }
+
+}
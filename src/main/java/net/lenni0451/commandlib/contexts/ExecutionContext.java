@@ -1,8 +1,12 @@
 package net.lenni0451.commandlib.contexts;
 
+import net.lenni0451.commandlib.utils.Primitive;
+import net.lenni0451.commandlib.utils.Util;
 import net.lenni0451.commandlib.utils.comparator.ArgumentComparator;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -13,18 +17,62 @@ import java.util.Map;
  */
 public class ExecutionContext<E> {
 
+    private static final Object UNSET = new Object();
+    private static final Object[] NO_VALUES = new Object[0];
+    private static final long[] NO_PRIMITIVES = new long[0];
+
+
     private final ArgumentComparator argumentComparator;
-    private final E executor;
-    private final Map<String, Object> arguments;
-    private final boolean isExecution;
+    private E executor;
+    /**
+     * The arguments are stored in the slots of the layout.<br>
+     * Arguments which are not part of the layout are stored in the map, which is only created when it is required.<br>
+     * Primitive values are stored in the primitives array, the value of their slot is the {@link Primitive} marker.
+     */
+    private ArgumentLayout layout = ArgumentLayout.EMPTY;
+    private Object[] values = NO_VALUES;
+    private long[] primitives = NO_PRIMITIVES;
+    private Map<String, Object> arguments;
+    private boolean isExecution;
+    private ElementCheckpoints elementCheckpoints;
 
     public ExecutionContext(final ArgumentComparator argumentComparator, final E executor, final boolean isExecution) {
         this.argumentComparator = argumentComparator;
         this.executor = executor;
-        this.arguments = new HashMap<>();
         this.isExecution = isExecution;
     }
 
+    /**
+     * Reset this context so it can be reused for another call.<br>
+     * All parsed arguments are removed.
+     *
+     * @param executor    The executor executing the command
+     * @param isExecution If the context is used for execution
+     */
+    public void reset(final E executor, final boolean isExecution) {
+        this.executor = executor;
+        this.layout = ArgumentLayout.EMPTY;
+        Arrays.fill(this.values, null);
+        if (this.arguments != null) this.arguments.clear();
+        this.isExecution = isExecution;
+    }
+
+    /**
+     * Create a copy of this context with all parsed arguments.<br>
+     * The copy is independent of this context, so it can be used on another thread while this context is reused.
+     * Element checkpoints are not copied.
+     *
+     * @return The copy of this context
+     */
+    public ExecutionContext<E> copy() {
+        ExecutionContext<E> copy = new ExecutionContext<>(this.argumentComparator, this.executor, this.isExecution);
+        copy.layout = this.layout;
+        copy.values = this.values.clone();
+        copy.primitives = this.primitives.clone();
+        if (this.arguments != null) copy.arguments = new HashMap<>(this.arguments);
+        return copy;
+    }
+
     /**
      * @return The used argument comparator
      */
@@ -40,12 +88,46 @@ public class ExecutionContext<E> {
     }
 
     /**
+     * <b>Moves all arguments out of their slots</b> and gets a mutable map of all parsed arguments.<br>
+     * After calling this method all lookups of this context are name based map lookups,
+     * including lookups by {@link ArgumentKey} and primitive lookups (which box the values).<br>
+     * Use {@link #getArgument(String)}, {@link #getArgument(ArgumentKey)} and {@link #addArgument(String, Object)}
+     * to access single arguments without losing the slots.
+     *
      * @return All parsed arguments
      */
     public Map<String, Object> getArguments() {
+        if (this.arguments == null) this.arguments = new HashMap<>();
+        for (int i = 0; i < this.layout.size(); i++) {
+            if (this.values[i] != UNSET) this.arguments.put(this.layout.getName(i), Primitive.box(this.values[i], this.primitives[i]));
+            this.values[i] = null;
+        }
+        this.layout = ArgumentLayout.EMPTY;
         return this.arguments;
     }
 
+    /**
+     * Prepare the slots for the arguments of the given layout.<br>
+     * The arguments stored in the slots of the previous layout are removed.
+     *
+     * @param layout The argument layout
+     */
+    public void prepareArguments(final ArgumentLayout layout) {
+        if (this.values.length < layout.size()) {
+            this.values = new Object[layout.size()];
+            this.primitives = new long[layout.size()];
+        }
+        Arrays.fill(this.values, UNSET);
+        this.layout = layout;
+    }
+
+    /**
+     * @return The layout of the argument slots
+     */
+    public ArgumentLayout getArgumentLayout() {
+        return this.layout;
+    }
+
     /**
      * Get a parsed argument by its name.
      *
@@ -56,8 +138,27 @@ public class ExecutionContext<E> {
      */
     @Nonnull
     public <T> T getArgument(final String name) {
-        if (!this.arguments.containsKey(name)) throw new IllegalArgumentException("The argument '" + name + "' does not exist");
-        return (T) this.arguments.get(name);
+        return (T) this.getArgument(name, this.layout.indexOf(name));
+    }
+
+    /**
+     * Get a parsed argument by its key.<br>
+     * The slot of the argument is cached in the key, so this is faster than looking up the argument by its name.
+     *
+     * @param key The key of the argument
+     * @param <T> The type of the argument
+     * @return The parsed argument
+     * @throws IllegalArgumentException If the argument does not exist
+     */
+    @Nonnull
+    public <T> T getArgument(final ArgumentKey<T> key) {
+        return Util.cast(this.getArgument(key.getName(), this.layout.slot(key)));
+    }
+
+    private Object getArgument(final String name, final int slot) {
+        if (slot >= 0 && this.values[slot] != UNSET) return Primitive.box(this.values[slot], this.primitives[slot]);
+        if (this.arguments == null || !this.arguments.containsKey(name)) throw new IllegalArgumentException("The argument '" + name + "' does not exist");
+        return this.arguments.get(name);
     }
 
     /**
@@ -67,7 +168,163 @@ public class ExecutionContext<E> {
      * @param value The value of the argument
      */
     public void addArgument(final String name, final Object value) {
-        this.arguments.put(name, value);
+        int slot = this.layout.indexOf(name);
+        if (slot >= 0) {
+            this.values[slot] = value;
+        } else {
+            if (this.arguments == null) this.arguments = new HashMap<>();
+            this.arguments.put(name, value);
+        }
+    }
+
+    /**
+     * Set the argument of a slot in the current layout.
+     *
+     * @param slot  The slot index
+     * @param value The value of the argument
+     * @see #prepareArguments(ArgumentLayout)
+     */
+    public void setArgument(final int slot, final Object value) {
+        this.values[slot] = value;
+    }
+
+    /**
+     * Set the primitive argument of a slot in the current layout without boxing it.
+     *
+     * @param slot      The slot index
+     * @param primitive The type of the value
+     * @param bits      The bits of the value (See {@link Primitive})
+     * @see #prepareArguments(ArgumentLayout)
+     */
+    public void setArgument(final int slot, final Primitive primitive, final long bits) {
+        this.values[slot] = primitive;
+        this.primitives[slot] = bits;
+    }
+
+    /**
+     * Get a parsed int argument by its name without boxing it.
+     *
+     * @param name The name of the argument
+     * @return The parsed argument
+     * @throws IllegalArgumentException If the argument does not exist
+     * @throws ClassCastException       If the argument is not an int
+     */
+    public int getInt(final String name) {
+        return (int) this.getPrimitive(name, this.layout.indexOf(name), Primitive.INT);
+    }
+
+    /**
+     * Get a parsed int argument by its key without boxing it.
+     *
+     * @param key The key of the argument
+     * @return The parsed argument
+     * @throws IllegalArgumentException If the argument does not exist
+     * @throws ClassCastException       If the argument is not an int
+     */
+    public int getInt(final ArgumentKey<Integer> key) {
+        return (int) this.getPrimitive(key.getName(), this.layout.slot(key), Primitive.INT);
+    }
+
+    /**
+     * Get a parsed long argument by its name without boxing it.
+     *
+     * @param name The name of the argument
+     * @return The parsed argument
+     * @throws IllegalArgumentException If the argument does not exist
+     * @throws ClassCastException       If the argument is not a long
+     */
+    public long getLong(final String name) {
+        return this.getPrimitive(name, this.layout.indexOf(name), Primitive.LONG);
+    }
+
+    /**
+     * Get a parsed long argument by its key without boxing it.
+     *
+     * @param key The key of the argument
+     * @return The parsed argument
+     * @throws IllegalArgumentException If the argument does not exist
+     * @throws ClassCastException       If the argument is not a long
+     */
+    public long getLong(final ArgumentKey<Long> key) {
+        return this.getPrimitive(key.getName(), this.layout.slot(key), Primitive.LONG);
+    }
+
+    /**
+     * Get a parsed float argument by its name without boxing it.
+     *
+     * @param name The name of the argument
+     * @return The parsed argument
+     * @throws IllegalArgumentException If the argument does not exist
+     * @throws ClassCastException       If the argument is not a float
+     */
+    public float getFloat(final String name) {
+        return Float.intBitsToFloat((int) this.getPrimitive(name, this.layout.indexOf(name), Primitive.FLOAT));
+    }
+
+    /**
+     * Get a parsed float argument by its key without boxing it.
+     *
+     * @param key The key of the argument
+     * @return The parsed argument
+     * @throws IllegalArgumentException If the argument does not exist
+     * @throws ClassCastException       If the argument is not a float
+     */
+    public float getFloat(final ArgumentKey<Float> key) {
+        return Float.intBitsToFloat((int) this.getPrimitive(key.getName(), this.layout.slot(key), Primitive.FLOAT));
+    }
+
+    /**
+     * Get a parsed double argument by its name without boxing it.
+     *
+     * @param name The name of the argument
+     * @return The parsed argument
+     * @throws IllegalArgumentException If the argument does not exist
+     * @throws ClassCastException       If the argument is not a double
+     */
+    public double getDouble(final String name) {
+        return Double.longBitsToDouble(this.getPrimitive(name, this.layout.indexOf(name), Primitive.DOUBLE));
+    }
+
+    /**
+     * Get a parsed double argument by its key without boxing it.
+     *
+     * @param key The key of the argument
+     * @return The parsed argument
+     * @throws IllegalArgumentException If the argument does not exist
+     * @throws ClassCastException       If the argument is not a double
+     */
+    public double getDouble(final ArgumentKey<Double> key) {
+        return Double.longBitsToDouble(this.getPrimitive(key.getName(), this.layout.slot(key), Primitive.DOUBLE));
+    }
+
+    /**
+     * Get a parsed boolean argument by its name without boxing it.
+     *
+     * @param name The name of the argument
+     * @return The parsed argument
+     * @throws IllegalArgumentException If the argument does not exist
+     * @throws ClassCastException       If the argument is not a boolean
+     */
+    public boolean getBoolean(final String name) {
+        return this.getPrimitive(name, this.layout.indexOf(name), Primitive.BOOLEAN) != 0;
+    }
+
+    /**
+     * Get a parsed boolean argument by its key without boxing it.
+     *
+     * @param key The key of the argument
+     * @return The parsed argument
+     * @throws IllegalArgumentException If the argument does not exist
+     * @throws ClassCastException       If the argument is not a boolean
+     */
+    public boolean getBoolean(final ArgumentKey<Boolean> key) {
+        return this.getPrimitive(key.getName(), this.layout.slot(key), Primitive.BOOLEAN) != 0;
+    }
+
+    private long getPrimitive(final String name, final int slot, final Primitive primitive) {
+        if (slot >= 0 && this.values[slot] == primitive) return this.primitives[slot];
+        //Arguments which have been added boxed (e.g. by custom types) are unboxed
+        return primitive.unbox(this.getArgument(name, slot));
     }
 
     /**
@@ -77,4 +334,25 @@ public class ExecutionContext<E> {
         return this.isExecution;
     }
 
+    /**
+     * Get the checkpoints of arguments consisting of multiple elements.<br>
+     * Checkpoints are only available when they are kept between multiple calls (e.g. by a {@link net.lenni0451.commandlib.CompletionSession}).
+     *
+     * @return The checkpoints or {@code null} if no checkpoints are kept
+     */
+    @Nullable
+    public ElementCheckpoints getElementCheckpoints() {
+        return this.elementCheckpoints;
+    }
+
+    /**
+     * Set the checkpoints of arguments consisting of multiple elements.<br>
+     * The checkpoints must belong to the input parsed with this context.
+     *
+     * @param elementCheckpoints The checkpoints or {@code null} to disable checkpoints
+     */
+    public void setElementCheckpoints(@Nullable final ElementCheckpoints elementCheckpoints) {
+        this.elementCheckpoints = elementCheckpoints;
+    }
+
 }
@@ -115,7 +115,11 @@ public class ChainExecutionException extends Exception {
         MISSING_SPACE,
         NO_ARGUMENTS_LEFT,
         TOO_MANY_ARGUMENTS,
-        REQUIREMENT_FAILED
+        REQUIREMENT_FAILED,
+        /**
+         * The redirect was not followed because the maximum redirect depth of the command executor was reached.
+         */
+        REDIRECT_LIMIT_REACHED
     }
 
 }
@@ -4,17 +4,22 @@ import net.lenni0451.commandlib.contexts.CompletionContext;
 import net.lenni0451.commandlib.contexts.ExecutionContext;
 import net.lenni0451.commandlib.exceptions.ArgumentParseException;
 import net.lenni0451.commandlib.exceptions.HandledException;
+import net.lenni0451.commandlib.utils.ParseStatus;
+import net.lenni0451.commandlib.utils.Primitive;
 import net.lenni0451.commandlib.utils.StringReader;
 import net.lenni0451.commandlib.utils.interfaces.ArgumentRequirement;
+import net.lenni0451.commandlib.utils.interfaces.AsyncCompletionsProvider;
 import net.lenni0451.commandlib.utils.interfaces.CommandExceptionHandler;
 import net.lenni0451.commandlib.utils.interfaces.CompletionsProvider;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -36,6 +41,7 @@ public abstract class ArgumentNode<E, T> {
     private ArgumentRequirement<E> requirement = e -> true;
     private Predicate<T> validator;
     private CompletionsProvider<E> completionsProvider;
+    private AsyncCompletionsProvider<E> asyncCompletionsProvider;
     private Consumer<CompletionContext> completionModifier;
     private CommandExceptionHandler<E> exceptionHandler;
     private Function<ExecutionContext<E>, ?> executor;
@@ -110,6 +116,14 @@ public abstract class ArgumentNode<E, T> {
         return this.completionsProvider;
     }
 
+    /**
+     * @return The asynchronous completions provider of this argument
+     */
+    @Nullable
+    public AsyncCompletionsProvider<E> asyncCompletionsProvider() {
+        return this.asyncCompletionsProvider;
+    }
+
     /**
      * @return The completion modifier of this argument
      */
@@ -159,6 +173,52 @@ public abstract class ArgumentNode<E, T> {
         return value;
     }
 
+    /**
+     * Parse the value of this argument without throwing an exception if the value could not be parsed.<br>
+     * The failure is reported to the given parse status instead.<br>
+     * Exceptions handled by the exception handler are still thrown as {@link HandledException}.
+     *
+     * @param executionContext The execution context
+     * @param stringReader     The string reader
+     * @param status           The parse status receiving the failure
+     * @return The parsed value or {@code null} if the value could not be parsed
+     * @throws RuntimeException If an unexpected error occurred
+     */
+    @Nullable
+    public T value(final ExecutionContext<E> executionContext, final StringReader stringReader, final ParseStatus status) throws RuntimeException {
+        if (this.exceptionHandler != null && executionContext.isExecution()) {
+            //The exception handler requires the exception
+            try {
+                return this.value(executionContext, stringReader);
+            } catch (ArgumentParseException e) {
+                return status.fail(e);
+            }
+        }
+        T value = this.parseValue(executionContext, stringReader, status);
+        if (status.hasFailed()) return null;
+        if (this.validator != null && !this.validator.test(value)) return status.fail(() -> ArgumentParseException.namedReason(this.name, "Invalid value"));
+        return value;
+    }
+
+    /**
+     * Parse the value of this argument like {@link #value(ExecutionContext, StringReader, ParseStatus)} without boxing primitive values.<br>
+     * Primitive values are returned as a {@link Primitive} marker, the value is stored in the parse status (See {@link ParseStatus#getPrimitiveBits()}).<br>
+     * Values which have to be validated are always boxed.
+     *
+     * @param executionContext The execution context
+     * @param stringReader     The string reader
+     * @param status           The parse status receiving the failure or primitive value
+     * @return The parsed value, a primitive marker or {@code null} if the value could not be parsed
+     * @throws RuntimeException If an unexpected error occurred
+     */
+    @Nullable
+    public Object rawValue(final ExecutionContext<E> executionContext, final StringReader stringReader, final ParseStatus status) throws RuntimeException {
+        if (this.validator != null || (this.exceptionHandler != null && executionContext.isExecution())) {
+            return this.value(executionContext, stringReader, status);
+        }
+        return this.parseRawValue(executionContext, stringReader, status);
+    }
+
     /**
      * Provide the completions of this argument.
      *
@@ -168,13 +228,44 @@ public abstract class ArgumentNode<E, T> {
      * @return The completions
      */
     public Set<String> parseCompletions(final CompletionContext completionContext, final ExecutionContext<E> executionContext, final StringReader reader) {
-        Set<String> completions = new HashSet<>();
+        //The insertion order is kept for arguments providing sorted completions
+        Set<String> completions = new LinkedHashSet<>();
         if (this.completionsProvider != null) this.completionsProvider.provide(completions, executionContext, reader);
+        else if (this.asyncCompletionsProvider != null) this.joinAsyncCompletions(completions, executionContext, reader);
         else this.parseCompletions(completions, completionContext, executionContext, reader);
         if (this.completionModifier != null) this.completionModifier.accept(completionContext);
         return completions;
     }
 
+    /**
+     * Provide the completions of this argument directly to the given sink.<br>
+     * Unlike {@link #parseCompletions(CompletionContext, ExecutionContext, StringReader)} the completion modifier is not applied to the completion context.
+     * The sink has to apply it (See {@link #completionModifier()}) after the settings of this argument, so it overrides them in the same way.
+     *
+     * @param completionContext The completion context
+     * @param executionContext  The execution context
+     * @param reader            The string reader
+     * @param sink              The set receiving the completions
+     */
+    public void streamCompletions(final CompletionContext completionContext, final ExecutionContext<E> executionContext, final StringReader reader, final Set<String> sink) {
+        if (this.completionsProvider != null) this.completionsProvider.provide(sink, executionContext, reader);
+        else if (this.asyncCompletionsProvider != null) this.joinAsyncCompletions(sink, executionContext, reader);
+        else this.parseCompletions(sink, completionContext, executionContext, reader);
+    }
+
+    private void joinAsyncCompletions(final Set<String> completions, final ExecutionContext<E> executionContext, final StringReader reader) {
+        Collection<String> provided;
+        try {
+            CompletionStage<? extends Collection<String>> stage = this.asyncCompletionsProvider.provide(executionContext, reader);
+            if (stage == null) return;
+            provided = stage.toCompletableFuture().join();
+        } catch (RuntimeException e) {
+            //Failing providers are ignored like in CommandExecutor#completionsAsync
+            return;
+        }
+        if (provided != null) completions.addAll(provided);
+    }
+
     /**
      * Parse the value of this argument.
      *
@@ -187,6 +278,40 @@ public abstract class ArgumentNode<E, T> {
     @Nonnull
     protected abstract T parseValue(final ExecutionContext<E> executionContext, final StringReader stringReader) throws ArgumentParseException, RuntimeException;
 
+    /**
+     * Parse the value of this argument without throwing an exception if the value could not be parsed.<br>
+     * Nodes can override this method to report failures to the parse status instead of throwing an exception.
+     *
+     * @param executionContext The execution context
+     * @param stringReader     The string reader
+     * @param status           The parse status receiving the failure
+     * @return The parsed value or {@code null} if the value could not be parsed
+     * @throws RuntimeException If an unexpected error occurred
+     */
+    @Nullable
+    protected T parseValue(final ExecutionContext<E> executionContext, final StringReader stringReader, final ParseStatus status) throws RuntimeException {
+        try {
+            return this.parseValue(executionContext, stringReader);
+        } catch (ArgumentParseException e) {
+            return status.fail(e);
+        }
+    }
+
+    /**
+     * Parse the value of this argument without boxing primitive values.<br>
+     * Nodes parsing primitive values can override this method to return a {@link Primitive} marker (See {@link ParseStatus#primitive(Primitive, long)}).
+     *
+     * @param executionContext The execution context
+     * @param stringReader     The string reader
+     * @param status           The parse status receiving the failure or primitive value
+     * @return The parsed value, a primitive marker or {@code null} if the value could not be parsed
+     * @throws RuntimeException If an unexpected error occurred
+     */
+    @Nullable
+    protected Object parseRawValue(final ExecutionContext<E> executionContext, final StringReader stringReader, final ParseStatus status) throws RuntimeException {
+        return this.parseValue(executionContext, stringReader, status);
+    }
+
     /**
      * Provide the completions of this argument.
      *
@@ -252,6 +377,21 @@ public abstract class ArgumentNode<E, T> {
         return this;
     }
 
+    /**
+     * Set the asynchronous completions provider of this argument node.<br>
+     * It is only used if no synchronous completions provider is set.
+     * {@link net.lenni0451.commandlib.CommandExecutor#completionsAsync(Object, CharSequence, java.time.Duration)} does not wait
+     * for the provider after the deadline, all other completion methods wait until the provider has completed.<br>
+     * Completions of a provider which completed exceptionally, threw an exception or returned no stage are ignored.
+     *
+     * @param asyncCompletionsProvider The asynchronous completions provider
+     * @return This argument node
+     */
+    public ArgumentNode<E, T> asyncCompletions(@Nullable final AsyncCompletionsProvider<E> asyncCompletionsProvider) {
+        this.asyncCompletionsProvider = asyncCompletionsProvider;
+        return this;
+    }
+
     /**
      * Set the completion modifier of this argument node.
      *
@@ -1,10 +1,12 @@
 package net.lenni0451.commandlib.nodes;
 
 import net.lenni0451.commandlib.contexts.CompletionContext;
+import net.lenni0451.commandlib.contexts.ElementCheckpoints;
 import net.lenni0451.commandlib.contexts.ExecutionContext;
 import net.lenni0451.commandlib.exceptions.ArgumentParseException;
 import net.lenni0451.commandlib.types.ArgumentType;
 import net.lenni0451.commandlib.utils.StringReader;
+import net.lenni0451.commandlib.utils.Util;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -39,18 +41,30 @@ public class ArrayNode<E, T> extends ArgumentNode<E, List<T>> {
     @Override
     protected List<T> parseValue(ExecutionContext<E> executionContext, StringReader stringReader) throws ArgumentParseException, RuntimeException {
         List<T> result = new ArrayList<>();
+        ElementCheckpoints checkpoints = executionContext.getElementCheckpoints();
+        ElementCheckpoints.Elements elements = checkpoints == null ? null : checkpoints.resume(this, stringReader);
+        if (elements != null) {
+            for (int i = 0; i < elements.size(); i++) result.add(Util.cast(elements.getValue(i)));
+        }
         while (stringReader.canRead()) {
+            int elementStart = stringReader.getCursor();
             String part;
             if (stringReader.peek() == '"' || stringReader.peek() == '\'') part = stringReader.readString();
             else part = stringReader.readUntil(false, ',', ' ');
             StringReader partReader = new StringReader(part);
-            result.add(this.type.parseValue(executionContext, partReader));
+            T value = this.type.parseValue(executionContext, partReader);
+            result.add(value);
             if (partReader.canRead()) throw ArgumentParseException.namedReason(this.name(), "Argument didn't end");
             if (stringReader.canRead()) {
                 char next = stringReader.peek();
-                if (next == ',') stringReader.skip();
-                else if (next == ' ') break;
-                else throw ArgumentParseException.namedReason(this.name(), "Expected comma or space");
+                if (next == ',') {
+                    stringReader.skip();
+                    if (elements != null) elements.add(result.size() - 1, elementStart, stringReader.getCursor(), value);
+                } else if (next == ' ') {
+                    break;
+                } else {
+                    throw ArgumentParseException.namedReason(this.name(), "Expected comma or space");
+                }
             }
         }
         return result;
@@ -58,14 +72,33 @@ public class ArrayNode<E, T> extends ArgumentNode<E, List<T>> {
 
     @Override
     protected void parseCompletions(Set<String> completions, CompletionContext completionContext, ExecutionContext<E> executionContext, StringReader stringReader) {
+        parseArrayCompletions(this, this.type, completions, completionContext, executionContext, stringReader);
+    }
+
+    /**
+     * Provide the completions of the last element of a comma separated array.
+     *
+     * @param node              The array node
+     * @param type              The type of the elements
+     * @param completions       The completions
+     * @param completionContext The completion context
+     * @param executionContext  The execution context
+     * @param stringReader      The string reader
+     * @param <E>               The type of the executor
+     */
+    static <E> void parseArrayCompletions(final ArgumentNode<E, ?> node, final ArgumentType<E, ?> type, final Set<String> completions, final CompletionContext completionContext, final ExecutionContext<E> executionContext, final StringReader stringReader) {
         if (!stringReader.canRead()) {
-            this.type.parseCompletions(completions, completionContext, executionContext, stringReader);
+            type.parseCompletions(completions, completionContext, executionContext, stringReader);
             return;
         }
 
         int start = stringReader.getCursor();
         String prefix = stringReader.peekRemaining();
         int lastCursor = stringReader.getCursor();
+        ElementCheckpoints checkpoints = executionContext.getElementCheckpoints();
+        ElementCheckpoints.Elements elements = checkpoints == null ? null : checkpoints.resume(node, stringReader);
+        int index = elements == null ? 0 : elements.size();
+        if (index > 0) lastCursor = stringReader.getCursor();
         while (stringReader.canRead()) {
             try {
                 lastCursor = stringReader.getCursor();
@@ -73,26 +106,28 @@ public class ArrayNode<E, T> extends ArgumentNode<E, List<T>> {
                 if (stringReader.peek() == '"' || stringReader.peek() == '\'') part = stringReader.readString();
                 else part = stringReader.readUntil(false, ',', ' ');
                 StringReader partReader = new StringReader(part);
-                this.type.parseValue(executionContext, partReader);
-                if (partReader.canRead()) throw ArgumentParseException.namedReason(this.name(), "Argument didn't end");
+                Object value = type.parseValue(executionContext, partReader);
+                if (partReader.canRead()) throw ArgumentParseException.namedReason(node.name(), "Argument didn't end");
                 if (stringReader.canRead()) {
                     char next = stringReader.peek();
                     if (next == ',') {
                         stringReader.skip();
+                        if (elements != null) elements.add(index, lastCursor, stringReader.getCursor(), value);
+                        index++;
                         if (!stringReader.canRead()) lastCursor = stringReader.getCursor();
                     } else if (next == ' ') {
                         break;
                     } else {
-                        throw ArgumentParseException.namedReason(this.name(), "Expected comma or space");
+                        throw ArgumentParseException.namedReason(node.name(), "Expected comma or space");
                     }
                 }
             } catch (Throwable t) {
                 break;
             }
         }
-        this.type.parseCompletions(completions, completionContext, executionContext, new StringReader(prefix.substring(lastCursor - start)));
-        stringReader.setCursor(lastCursor);
         completionContext.setCompletionsTrim(lastCursor - start);
+        type.parseCompletions(completions, completionContext, executionContext, new StringReader(prefix.substring(lastCursor - start)));
+        stringReader.setCursor(lastCursor);
     }
 
 }
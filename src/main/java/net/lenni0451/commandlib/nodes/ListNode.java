@@ -1,10 +1,12 @@
 package net.lenni0451.commandlib.nodes;
 
 import net.lenni0451.commandlib.contexts.CompletionContext;
+import net.lenni0451.commandlib.contexts.ElementCheckpoints;
 import net.lenni0451.commandlib.contexts.ExecutionContext;
 import net.lenni0451.commandlib.exceptions.ArgumentParseException;
 import net.lenni0451.commandlib.types.ArgumentType;
 import net.lenni0451.commandlib.utils.StringReader;
+import net.lenni0451.commandlib.utils.Util;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -40,10 +42,19 @@ public class ListNode<E, T> extends ArgumentNode<E, List<T>> {
     @Override
     protected List<T> parseValue(ExecutionContext<E> executionContext, StringReader stringReader) throws ArgumentParseException, RuntimeException {
         List<T> result = new ArrayList<>();
+        ElementCheckpoints checkpoints = executionContext.getElementCheckpoints();
+        ElementCheckpoints.Elements elements = checkpoints == null ? null : checkpoints.resume(this, stringReader);
+        if (elements != null) {
+            for (int i = 0; i < elements.size(); i++) result.add(Util.cast(elements.getValue(i)));
+        }
+        if (!result.isEmpty() && !stringReader.canRead()) throw ArgumentParseException.namedReason(this.name(), "Expected value");
         while (stringReader.canRead()) {
-            result.add(this.type.parseValue(executionContext, stringReader));
+            int elementStart = stringReader.getCursor();
+            T value = this.type.parseValue(executionContext, stringReader);
+            result.add(value);
             if (stringReader.canRead()) {
                 if (stringReader.read() != ' ') throw ArgumentParseException.namedReason(this.name(), "Expected space");
+                if (elements != null) elements.add(result.size() - 1, elementStart, stringReader.getCursor(), value);
                 if (!stringReader.canRead()) throw ArgumentParseException.namedReason(this.name(), "Expected value");
             }
         }
@@ -61,19 +72,30 @@ public class ListNode<E, T> extends ArgumentNode<E, List<T>> {
         String prefix = stringReader.peekRemaining();
         boolean endsWithSpace = false;
         int lastCursor = stringReader.getCursor();
+        ElementCheckpoints checkpoints = executionContext.getElementCheckpoints();
+        ElementCheckpoints.Elements elements = checkpoints == null ? null : checkpoints.resume(this, stringReader);
+        int index = elements == null ? 0 : elements.size();
+        if (index > 0) {
+            lastCursor = elements.getElementStart(index - 1);
+            if (!stringReader.canRead()) endsWithSpace = true;
+        }
         while (stringReader.canRead()) {
             try {
                 lastCursor = stringReader.getCursor();
-                this.type.parseValue(executionContext, stringReader);
-                if (stringReader.canRead() && stringReader.read() == ' ' && !stringReader.canRead()) endsWithSpace = true;
+                T value = this.type.parseValue(executionContext, stringReader);
+                if (stringReader.canRead() && stringReader.read() == ' ') {
+                    if (elements != null) elements.add(index, lastCursor, stringReader.getCursor(), value);
+                    if (!stringReader.canRead()) endsWithSpace = true;
+                }
+                index++;
             } catch (Throwable t) {
                 break;
             }
         }
-        if (!endsWithSpace) prefix = stringReader.getString().substring(start, lastCursor);
+        if (!endsWithSpace) prefix = stringReader.substring(start, lastCursor);
         stringReader.setCursor(lastCursor);
-        this.type.parseCompletions(completions, completionContext, executionContext, new StringReader(prefix));
         completionContext.setCompletionsTrim(prefix.length());
+        this.type.parseCompletions(completions, completionContext, executionContext, new StringReader(prefix));
     }
 
 }
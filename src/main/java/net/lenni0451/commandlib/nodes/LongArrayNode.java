@@ -0,0 +1,81 @@
+package net.lenni0451.commandlib.nodes;
+
+import net.lenni0451.commandlib.contexts.CompletionContext;
+import net.lenni0451.commandlib.contexts.ExecutionContext;
+import net.lenni0451.commandlib.exceptions.ArgumentParseException;
+import net.lenni0451.commandlib.types.LongArgumentType;
+import net.lenni0451.commandlib.utils.ParseStatus;
+import net.lenni0451.commandlib.utils.StringReader;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * The long array node parses multiple long values separated by a comma like the {@link ArrayNode}.<br>
+ * The values are stored in a long array without boxing them.
+ * Every element is parsed from a view of the input, no string is created for it.
+ *
+ * @param <E> The type of the executor
+ */
+public class LongArrayNode<E> extends ArgumentNode<E, long[]> {
+
+    private static final char[] SEPARATORS = {',', ' '};
+
+
+    private final LongArgumentType<E> type;
+
+    public LongArrayNode(final String name, final LongArgumentType<E> type) {
+        super(name);
+        this.type = type;
+        this.weight = type.getWeight();
+    }
+
+    public LongArrayNode(final String name, @Nullable final String description, final LongArgumentType<E> type) {
+        super(name, description);
+        this.type = type;
+        this.weight = type.getWeight();
+    }
+
+    @Nonnull
+    @Override
+    protected long[] parseValue(ExecutionContext<E> executionContext, StringReader stringReader) throws ArgumentParseException, RuntimeException {
+        ParseStatus status = new ParseStatus();
+        return status.valueOrThrow(this.parseValue(executionContext, stringReader, status));
+    }
+
+    @Nullable
+    @Override
+    protected long[] parseValue(ExecutionContext<E> executionContext, StringReader stringReader, ParseStatus status) throws RuntimeException {
+        long[] values = new long[8];
+        int size = 0;
+        StringReader elementReader = null;
+        while (stringReader.canRead()) {
+            CharSequence element;
+            if (stringReader.peek() == '"' || stringReader.peek() == '\'') element = stringReader.readStringView();
+            else element = stringReader.readUntilView(false, SEPARATORS);
+            //A single reader is reset for every element
+            if (elementReader == null) elementReader = new StringReader(element);
+            else elementReader.reset(element);
+            long value = this.type.parseLong(executionContext, elementReader, status);
+            if (status.hasFailed()) return null;
+            if (elementReader.canRead()) return status.fail(() -> ArgumentParseException.namedReason(this.name(), "Argument didn't end"));
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+            if (stringReader.canRead()) {
+                char next = stringReader.peek();
+                if (next == ',') stringReader.skip();
+                else if (next == ' ') break;
+                else return status.fail(() -> ArgumentParseException.namedReason(this.name(), "Expected comma or space"));
+            }
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    @Override
+    protected void parseCompletions(Set<String> completions, CompletionContext completionContext, ExecutionContext<E> executionContext, StringReader stringReader) {
+        ArrayNode.parseArrayCompletions(this, this.type, completions, completionContext, executionContext, stringReader);
+    }
+
+}
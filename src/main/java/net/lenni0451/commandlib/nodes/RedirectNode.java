@@ -1,6 +1,7 @@
 package net.lenni0451.commandlib.nodes;
 
 import net.lenni0451.commandlib.ArgumentChain;
+import net.lenni0451.commandlib.ChainTree;
 import net.lenni0451.commandlib.contexts.CompletionContext;
 import net.lenni0451.commandlib.contexts.ExecutionContext;
 import net.lenni0451.commandlib.exceptions.ArgumentParseException;
@@ -26,7 +27,7 @@ import java.util.function.Supplier;
 public class RedirectNode<E> extends ArgumentNode<E, Void> {
 
     private final ArgumentNode<E, ?> targetNode;
-    private List<ArgumentChain<E>> targetChains;
+    private volatile ChainTree<E> targetTree;
 
     public RedirectNode(final ArgumentNode<E, ?> targetNode) {
         super("redirect");
@@ -41,11 +42,24 @@ public class RedirectNode<E> extends ArgumentNode<E, Void> {
     }
 
     /**
+     * The target chains are sorted by preference (See {@link ChainTree#build(List)}).
+     *
      * @return The dynamically generated list of target chains
      */
     public List<ArgumentChain<E>> getTargetChains() {
-        if (this.targetChains == null) this.targetChains = ArgumentChain.buildChains(this.targetNode);
-        return this.targetChains;
+        return this.getTargetTree().getChains();
+    }
+
+    /**
+     * The tree is built when it is requested for the first time.<br>
+     * If multiple threads request the tree at the same time it might be built more than once, but all threads get a fully built tree.
+     *
+     * @return The dynamically generated tree of target chains
+     */
+    public ChainTree<E> getTargetTree() {
+        ChainTree<E> targetTree = this.targetTree;
+        if (targetTree == null) this.targetTree = targetTree = ChainTree.build(this.targetNode);
+        return targetTree;
     }
 
     @Nonnull
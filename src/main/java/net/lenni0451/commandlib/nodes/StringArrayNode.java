@@ -1,6 +1,7 @@
 package net.lenni0451.commandlib.nodes;
 
 import net.lenni0451.commandlib.contexts.CompletionContext;
+import net.lenni0451.commandlib.contexts.ElementCheckpoints;
 import net.lenni0451.commandlib.contexts.ExecutionContext;
 import net.lenni0451.commandlib.exceptions.ArgumentParseException;
 import net.lenni0451.commandlib.utils.StringReader;
@@ -35,10 +36,19 @@ public class StringArrayNode<E> extends ArgumentNode<E, String[]> {
     @Override
     protected String[] parseValue(ExecutionContext<E> executionContext, StringReader stringReader) throws ArgumentParseException, RuntimeException {
         List<String> args = new ArrayList<>();
+        ElementCheckpoints checkpoints = executionContext.getElementCheckpoints();
+        ElementCheckpoints.Elements elements = checkpoints == null ? null : checkpoints.resume(this, stringReader);
+        if (elements != null) {
+            for (int i = 0; i < elements.size(); i++) args.add((String) elements.getValue(i));
+        }
+        if (!args.isEmpty() && !stringReader.canRead()) throw ArgumentParseException.namedReason(this.name(), "Expected value");
         while (stringReader.canRead()) {
-            args.add(stringReader.readWordOrString());
+            int elementStart = stringReader.getCursor();
+            String arg = stringReader.readWordOrString();
+            args.add(arg);
             if (stringReader.canRead()) {
                 if (stringReader.read() != ' ') throw ArgumentParseException.namedReason(this.name(), "Expected space");
+                if (elements != null) elements.add(args.size() - 1, elementStart, stringReader.getCursor(), arg);
                 if (!stringReader.canRead()) throw ArgumentParseException.namedReason(this.name(), "Expected value");
             }
         }
@@ -58,11 +68,24 @@ public class StringArrayNode<E> extends ArgumentNode<E, String[]> {
         boolean endsWithSpace = false;
         List<String> args = new ArrayList<>();
         int lastCursor = stringReader.getCursor();
+        ElementCheckpoints checkpoints = executionContext.getElementCheckpoints();
+        ElementCheckpoints.Elements elements = checkpoints == null ? null : checkpoints.resume(this, stringReader);
+        if (elements != null) {
+            for (int i = 0; i < elements.size(); i++) args.add((String) elements.getValue(i));
+        }
+        if (!args.isEmpty()) {
+            lastCursor = elements.getElementStart(elements.size() - 1);
+            if (!stringReader.canRead()) endsWithSpace = true;
+        }
         while (stringReader.canRead()) {
             try {
                 lastCursor = stringReader.getCursor();
-                args.add(stringReader.readWordOrString());
-                if (stringReader.canRead() && stringReader.read() == ' ' && !stringReader.canRead()) endsWithSpace = true;
+                String arg = stringReader.readWordOrString();
+                args.add(arg);
+                if (stringReader.canRead() && stringReader.read() == ' ') {
+                    if (elements != null) elements.add(args.size() - 1, lastCursor, stringReader.getCursor(), arg);
+                    if (!stringReader.canRead()) endsWithSpace = true;
+                }
             } catch (Throwable t) {
                 break;
             }
@@ -73,10 +96,10 @@ public class StringArrayNode<E> extends ArgumentNode<E, String[]> {
         }
         if (!endsWithSpace) {
             args.remove(args.size() - 1);
-            prefix = stringReader.getString().substring(start, lastCursor);
+            prefix = stringReader.substring(start, lastCursor);
         }
-        this.completor.complete(completions, args.toArray(new String[0]), executionContext);
         completionContext.setCompletionsTrim(prefix.length());
+        this.completor.complete(completions, args.toArray(new String[0]), executionContext);
     }
 
 
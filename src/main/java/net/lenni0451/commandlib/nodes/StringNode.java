@@ -4,6 +4,7 @@ package net.lenni0451.commandlib.nodes;
 import net.lenni0451.commandlib.contexts.CompletionContext;
 import net.lenni0451.commandlib.contexts.ExecutionContext;
 import net.lenni0451.commandlib.exceptions.ArgumentParseException;
+import net.lenni0451.commandlib.utils.ParseStatus;
 import net.lenni0451.commandlib.utils.StringReader;
 import net.lenni0451.commandlib.utils.comparator.ArgumentComparator;
 
@@ -34,9 +35,16 @@ public class StringNode<E> extends ArgumentNode<E, String> {
     @Nonnull
     @Override
     protected String parseValue(ExecutionContext<E> executionContext, StringReader reader) throws ArgumentParseException, RuntimeException {
-        String result = reader.readWordOrString();
+        ParseStatus status = new ParseStatus();
+        return status.valueOrThrow(this.parseValue(executionContext, reader, status));
+    }
+
+    @Nullable
+    @Override
+    protected String parseValue(ExecutionContext<E> executionContext, StringReader reader, ParseStatus status) throws RuntimeException {
+        CharSequence result = reader.readWordOrStringView();
         if (executionContext.getArgumentComparator().compare(result, this.name())) return this.name();
-        throw ArgumentParseException.namedReason(this.name(), "Expected '" + this.name() + "'");
+        return status.fail(() -> ArgumentParseException.namedReason(this.name(), "Expected '" + this.name() + "'"));
     }
 
     @Override
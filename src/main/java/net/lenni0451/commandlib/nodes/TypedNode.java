@@ -4,6 +4,8 @@ import net.lenni0451.commandlib.contexts.CompletionContext;
 import net.lenni0451.commandlib.contexts.ExecutionContext;
 import net.lenni0451.commandlib.exceptions.ArgumentParseException;
 import net.lenni0451.commandlib.types.ArgumentType;
+import net.lenni0451.commandlib.types.PrimitiveArgumentType;
+import net.lenni0451.commandlib.utils.ParseStatus;
 import net.lenni0451.commandlib.utils.StringReader;
 
 import javax.annotation.Nonnull;
@@ -38,6 +40,22 @@ public class TypedNode<E, T> extends ArgumentNode<E, T> {
         return this.type.parseValue(executionContext, stringReader);
     }
 
+    @Nullable
+    @Override
+    protected T parseValue(ExecutionContext<E> executionContext, StringReader stringReader, ParseStatus status) throws RuntimeException {
+        return this.type.parseValue(executionContext, stringReader, status);
+    }
+
+    @Nullable
+    @Override
+    protected Object parseRawValue(ExecutionContext<E> executionContext, StringReader stringReader, ParseStatus status) throws RuntimeException {
+        if (!(this.type instanceof PrimitiveArgumentType)) return this.parseValue(executionContext, stringReader, status);
+        PrimitiveArgumentType<E, T> type = (PrimitiveArgumentType<E, T>) this.type;
+        long bits = type.parsePrimitive(executionContext, stringReader, status);
+        if (status.hasFailed()) return null;
+        return status.primitive(type.getPrimitive(), bits);
+    }
+
     @Override
     protected void parseCompletions(Set<String> completions, CompletionContext completionContext, ExecutionContext<E> executionContext, StringReader stringReader) {
         this.type.parseCompletions(completions, completionContext, executionContext, stringReader);
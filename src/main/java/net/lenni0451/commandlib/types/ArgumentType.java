@@ -3,9 +3,11 @@ package net.lenni0451.commandlib.types;
 import net.lenni0451.commandlib.contexts.CompletionContext;
 import net.lenni0451.commandlib.contexts.ExecutionContext;
 import net.lenni0451.commandlib.exceptions.ArgumentParseException;
+import net.lenni0451.commandlib.utils.ParseStatus;
 import net.lenni0451.commandlib.utils.StringReader;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Set;
 
 /**
@@ -36,6 +38,26 @@ public interface ArgumentType<E, T> {
     @Nonnull
     T parseValue(final ExecutionContext<E> executionContext, final StringReader stringReader) throws ArgumentParseException, RuntimeException;
 
+    /**
+     * Parses the value of the argument without throwing an exception if the value could not be parsed.<br>
+     * Types can override this method to report failures to the parse status instead of throwing an exception.<br>
+     * This is used when parsing argument chains since most chains are expected to fail.
+     *
+     * @param executionContext The execution context
+     * @param stringReader     The string reader
+     * @param status           The parse status receiving the failure
+     * @return The parsed value or {@code null} if the value could not be parsed
+     * @throws RuntimeException If an unexpected error occurred
+     */
+    @Nullable
+    default T parseValue(final ExecutionContext<E> executionContext, final StringReader stringReader, final ParseStatus status) throws RuntimeException {
+        try {
+            return this.parseValue(executionContext, stringReader);
+        } catch (ArgumentParseException e) {
+            return status.fail(e);
+        }
+    }
+
     /**
      * <b>Deprecated!</b> Use {@link #parseCompletions(Set, CompletionContext, ExecutionContext, StringReader)}.
      *
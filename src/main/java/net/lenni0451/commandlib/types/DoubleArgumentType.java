@@ -0,0 +1,57 @@
+package net.lenni0451.commandlib.types;
+
+import net.lenni0451.commandlib.contexts.ExecutionContext;
+import net.lenni0451.commandlib.exceptions.ArgumentParseException;
+import net.lenni0451.commandlib.utils.ParseStatus;
+import net.lenni0451.commandlib.utils.Primitive;
+import net.lenni0451.commandlib.utils.StringReader;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An argument type parsing double values without boxing them.
+ *
+ * @param <E> The type of the executor
+ */
+public interface DoubleArgumentType<E> extends PrimitiveArgumentType<E, Double> {
+
+    /**
+     * Parses the value of the argument.<br>
+     * If the value could not be parsed the failure is reported to the status and the returned value is ignored.
+     *
+     * @param executionContext The execution context
+     * @param stringReader     The string reader
+     * @param status           The parse status receiving the failure
+     * @return The parsed value
+     * @throws RuntimeException If an unexpected error occurred
+     */
+    double parseDouble(final ExecutionContext<E> executionContext, final StringReader stringReader, final ParseStatus status) throws RuntimeException;
+
+    @Override
+    default Primitive getPrimitive() {
+        return Primitive.DOUBLE;
+    }
+
+    @Override
+    default long parsePrimitive(final ExecutionContext<E> executionContext, final StringReader stringReader, final ParseStatus status) throws RuntimeException {
+        return Double.doubleToRawLongBits(this.parseDouble(executionContext, stringReader, status));
+    }
+
+    @Nonnull
+    @Override
+    default Double parseValue(final ExecutionContext<E> executionContext, final StringReader stringReader) throws ArgumentParseException, RuntimeException {
+        ParseStatus status = new ParseStatus();
+        double value = this.parseDouble(executionContext, stringReader, status);
+        return status.valueOrThrow(value);
+    }
+
+    @Nullable
+    @Override
+    default Double parseValue(final ExecutionContext<E> executionContext, final StringReader stringReader, final ParseStatus status) throws RuntimeException {
+        double value = this.parseDouble(executionContext, stringReader, status);
+        if (status.hasFailed()) return null;
+        return value;
+    }
+
+}
@@ -3,10 +3,12 @@ package net.lenni0451.commandlib.types;
 import net.lenni0451.commandlib.contexts.CompletionContext;
 import net.lenni0451.commandlib.contexts.ExecutionContext;
 import net.lenni0451.commandlib.exceptions.ArgumentParseException;
+import net.lenni0451.commandlib.utils.ParseStatus;
 import net.lenni0451.commandlib.utils.StringReader;
 import net.lenni0451.commandlib.utils.Util;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -50,9 +52,16 @@ public class EnumType<E, T extends Enum<T>> implements ArgumentType<E, T> {
     @Nonnull
     @Override
     public T parseValue(ExecutionContext<E> executionContext, StringReader stringReader) throws ArgumentParseException, RuntimeException {
+        ParseStatus status = new ParseStatus();
+        return status.valueOrThrow(this.parseValue(executionContext, stringReader, status));
+    }
+
+    @Nullable
+    @Override
+    public T parseValue(ExecutionContext<E> executionContext, StringReader stringReader, ParseStatus status) throws RuntimeException {
         String name = stringReader.readWord();
         T value = this.nameToValue.get(name.toLowerCase());
-        if (value == null) throw ArgumentParseException.reason("Unknown enum value '" + name + "'");
+        if (value == null) return status.fail(() -> ArgumentParseException.reason("Unknown enum value '" + name + "'"));
         return value;
     }
 
@@ -3,11 +3,9 @@ package net.lenni0451.commandlib.types;
 import net.lenni0451.commandlib.contexts.CompletionContext;
 import net.lenni0451.commandlib.contexts.ExecutionContext;
 import net.lenni0451.commandlib.exceptions.ArgumentParseException;
+import net.lenni0451.commandlib.utils.ParseStatus;
 import net.lenni0451.commandlib.utils.StringReader;
-import net.lenni0451.commandlib.utils.Util;
 
-import javax.annotation.Nonnull;
-import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -17,7 +15,7 @@ import java.util.Set;
  *
  * @param <E> The type of the executor
  */
-public class FloatType<E> implements ArgumentType<E, Float> {
+public class FloatType<E> implements FloatArgumentType<E> {
 
     /**
      * Create a new float type with no min and max value.<br>
@@ -82,19 +80,17 @@ public class FloatType<E> implements ArgumentType<E, Float> {
         return 50;
     }
 
-    @Nonnull
     @Override
-    public Float parseValue(ExecutionContext<E> executionContext, StringReader stringReader) throws ArgumentParseException, RuntimeException {
-        Optional<Float> f = Util.ofThrowing(() -> Float.parseFloat(stringReader.readDecimalNumber()));
-        if (!f.isPresent()) {
-            if (this.min == null && this.max == null) throw ArgumentParseException.expected("float");
-            else if (this.min == null) throw ArgumentParseException.expected("float <= " + this.max);
-            else if (this.max == null) throw ArgumentParseException.expected("float >= " + this.min);
-            else throw ArgumentParseException.expected("float >= " + this.min + " & <= " + this.max);
+    public float parseFloat(ExecutionContext<E> executionContext, StringReader stringReader, ParseStatus status) throws RuntimeException {
+        float f = stringReader.readFloat(status);
+        if (status.hasFailed()) {
+            status.fail(this::expected);
+        } else if (this.min != null && f < this.min) {
+            status.fail(() -> ArgumentParseException.reason("Number is too small (min: " + this.min + ")"));
+        } else if (this.max != null && f > this.max) {
+            status.fail(() -> ArgumentParseException.reason("Number is too big (max: " + this.max + ")"));
         }
-        if (this.min != null && f.get() < this.min) throw ArgumentParseException.reason("Number is too small (min: " + this.min + ")");
-        if (this.max != null && f.get() > this.max) throw ArgumentParseException.reason("Number is too big (max: " + this.max + ")");
-        return f.get();
+        return f;
     }
 
     @Override
@@ -113,4 +109,11 @@ public class FloatType<E> implements ArgumentType<E, Float> {
         }
     }
 
+    private ArgumentParseException expected() {
+        if (this.min == null && this.max == null) return ArgumentParseException.expected("float");
+        else if (this.min == null) return ArgumentParseException.expected("float <= " + this.max);
+        else if (this.max == null) return ArgumentParseException.expected("float >= " + this.min);
+        else return ArgumentParseException.expected("float >= " + this.min + " & <= " + this.max);
+    }
+
 }
@@ -3,11 +3,9 @@ package net.lenni0451.commandlib.types;
 import net.lenni0451.commandlib.contexts.CompletionContext;
 import net.lenni0451.commandlib.contexts.ExecutionContext;
 import net.lenni0451.commandlib.exceptions.ArgumentParseException;
+import net.lenni0451.commandlib.utils.ParseStatus;
 import net.lenni0451.commandlib.utils.StringReader;
-import net.lenni0451.commandlib.utils.Util;
 
-import javax.annotation.Nonnull;
-import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -17,7 +15,7 @@ import java.util.Set;
  *
  * @param <E> The type of the executor
  */
-public class IntegerType<E> implements ArgumentType<E, Integer> {
+public class IntegerType<E> implements IntArgumentType<E> {
 
     /**
      * Create a new integer type with no min and max value.<br>
@@ -82,19 +80,17 @@ public class IntegerType<E> implements ArgumentType<E, Integer> {
         return 50;
     }
 
-    @Nonnull
     @Override
-    public Integer parseValue(ExecutionContext<E> executionContext, StringReader stringReader) throws ArgumentParseException, RuntimeException {
-        Optional<Integer> i = Util.ofThrowing(() -> Integer.parseInt(stringReader.readIntegerNumber()));
-        if (!i.isPresent()) {
-            if (this.min == null && this.max == null) throw ArgumentParseException.expected("int");
-            else if (this.min == null) throw ArgumentParseException.expected("int <= " + this.max);
-            else if (this.max == null) throw ArgumentParseException.expected("int >= " + this.min);
-            else throw ArgumentParseException.expected("int >= " + this.min + " & <= " + this.max);
+    public int parseInt(ExecutionContext<E> executionContext, StringReader stringReader, ParseStatus status) throws RuntimeException {
+        int i = stringReader.readInt(status);
+        if (status.hasFailed()) {
+            status.fail(this::expected);
+        } else if (this.min != null && i < this.min) {
+            status.fail(() -> ArgumentParseException.reason("Number is too small (min: " + this.min + ")"));
+        } else if (this.max != null && i > this.max) {
+            status.fail(() -> ArgumentParseException.reason("Number is too big (max: " + this.max + ")"));
         }
-        if (this.min != null && i.get() < this.min) throw ArgumentParseException.reason("Number is too small (min: " + this.min + ")");
-        if (this.max != null && i.get() > this.max) throw ArgumentParseException.reason("Number is too big (max: " + this.max + ")");
-        return i.get();
+        return i;
     }
 
     @Override
@@ -113,4 +109,11 @@ public class IntegerType<E> implements ArgumentType<E, Integer> {
         }
     }
 
+    private ArgumentParseException expected() {
+        if (this.min == null && this.max == null) return ArgumentParseException.expected("int");
+        else if (this.min == null) return ArgumentParseException.expected("int <= " + this.max);
+        else if (this.max == null) return ArgumentParseException.expected("int >= " + this.min);
+        else return ArgumentParseException.expected("int >= " + this.min + " & <= " + this.max);
+    }
+
 }
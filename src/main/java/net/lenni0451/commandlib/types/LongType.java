@@ -0,0 +1,119 @@
+package net.lenni0451.commandlib.types;
+
+import net.lenni0451.commandlib.contexts.CompletionContext;
+import net.lenni0451.commandlib.contexts.ExecutionContext;
+import net.lenni0451.commandlib.exceptions.ArgumentParseException;
+import net.lenni0451.commandlib.utils.ParseStatus;
+import net.lenni0451.commandlib.utils.StringReader;
+
+import java.util.Set;
+
+/**
+ * The long type parses a long number from the string reader.<br>
+ * Min and max values can be defined (inclusive).<br>
+ * Completions are calculated based on the min and max values.
+ *
+ * @param <E> The type of the executor
+ */
+public class LongType<E> implements LongArgumentType<E> {
+
+    /**
+     * Create a new long type with no min and max value.<br>
+     * Values between {@link Long#MIN_VALUE} and {@link Long#MAX_VALUE} are allowed.
+     *
+     * @param <E> The type of the executor
+     * @return The new long type
+     */
+    public static <E> LongType<E> create() {
+        return new LongType<>(null, null);
+    }
+
+    /**
+     * Create a new long type with a min value.<br>
+     * Values between {@code min} and {@link Long#MAX_VALUE} are allowed.
+     *
+     * @param min The min value
+     * @param <E> The type of the executor
+     * @return The new long type
+     */
+    public static <E> LongType<E> minLong(final long min) {
+        return new LongType<>(min, null);
+    }
+
+    /**
+     * Create a new long type with a max value.<br>
+     * Values between {@link Long#MIN_VALUE} and {@code max} are allowed.
+     *
+     * @param max The max value
+     * @param <E> The type of the executor
+     * @return The new long type
+     */
+    public static <E> LongType<E> maxLong(final long max) {
+        return new LongType<>(null, max);
+    }
+
+    /**
+     * Create a new long type with a min and max value.<br>
+     * Values between {@code min} and {@code max} are allowed.
+     *
+     * @param min The min value
+     * @param max The max value
+     * @param <E> The type of the executor
+     * @return The new long type
+     */
+    public static <E> LongType<E> rangeLong(final long min, final long max) {
+        return new LongType<>(min, max);
+    }
+
+
+    private final Long min;
+    private final Long max;
+
+    private LongType(final Long min, final Long max) {
+        if (min != null && max != null && min > max) throw new IllegalArgumentException("min must be smaller than max");
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    public int getWeight() {
+        return 50;
+    }
+
+    @Override
+    public long parseLong(ExecutionContext<E> executionContext, StringReader stringReader, ParseStatus status) throws RuntimeException {
+        long l = stringReader.readLong(status);
+        if (status.hasFailed()) {
+            status.fail(this::expected);
+        } else if (this.min != null && l < this.min) {
+            status.fail(() -> ArgumentParseException.reason("Number is too small (min: " + this.min + ")"));
+        } else if (this.max != null && l > this.max) {
+            status.fail(() -> ArgumentParseException.reason("Number is too big (max: " + this.max + ")"));
+        }
+        return l;
+    }
+
+    @Override
+    public void parseCompletions(Set<String> completions, CompletionContext completionContext, ExecutionContext<E> executionContext, StringReader stringReader) {
+        if (this.min != null && this.max != null) {
+            //Divide before subtracting, so the difference does not overflow
+            long step = Math.max(1, this.max / 10 - this.min / 10);
+            for (long l = this.min; l <= this.max && l >= this.min; l += step) completions.add(String.valueOf(l));
+            completions.add(String.valueOf(this.max));
+        } else if (this.min != null) {
+            for (long l = this.min; l - this.min <= 10 && l >= this.min; l++) completions.add(String.valueOf(l));
+        } else if (this.max != null) {
+            for (long l = this.max; this.max - l <= 10 && l <= this.max; l--) completions.add(String.valueOf(l));
+        } else {
+            for (long l = -5; l <= 10; l++) completions.add(String.valueOf(l));
+        }
+    }
+
+    private ArgumentParseException expected() {
+        if (this.min == null && this.max == null) return ArgumentParseException.expected("long");
+        else if (this.min == null) return ArgumentParseException.expected("long <= " + this.max);
+        else if (this.max == null) return ArgumentParseException.expected("long >= " + this.min);
+        else return ArgumentParseException.expected("long >= " + this.min + " & <= " + this.max);
+    }
+
+}
@@ -0,0 +1,35 @@
+package net.lenni0451.commandlib.types;
+
+import net.lenni0451.commandlib.contexts.ExecutionContext;
+import net.lenni0451.commandlib.utils.ParseStatus;
+import net.lenni0451.commandlib.utils.Primitive;
+import net.lenni0451.commandlib.utils.StringReader;
+
+/**
+ * An argument type parsing a primitive value.<br>
+ * When parsing argument chains the value is passed to the execution context without boxing it.<br>
+ * Implement one of the specialized interfaces (e.g. {@link IntArgumentType}) instead of this interface.
+ *
+ * @param <E> The type of the executor
+ * @param <T> The boxed type of the argument
+ */
+public interface PrimitiveArgumentType<E, T> extends ArgumentType<E, T> {
+
+    /**
+     * @return The primitive type of the parsed values
+     */
+    Primitive getPrimitive();
+
+    /**
+     * Parses the value of the argument without boxing it.<br>
+     * If the value could not be parsed the failure is reported to the status and the returned bits are ignored.
+     *
+     * @param executionContext The execution context
+     * @param stringReader     The string reader
+     * @param status           The parse status receiving the failure
+     * @return The bits of the parsed value (See {@link Primitive})
+     * @throws RuntimeException If an unexpected error occurred
+     */
+    long parsePrimitive(final ExecutionContext<E> executionContext, final StringReader stringReader, final ParseStatus status) throws RuntimeException;
+
+}
@@ -0,0 +1,145 @@
+package net.lenni0451.commandlib.utils;
+
+import net.lenni0451.commandlib.exceptions.ArgumentParseException;
+
+import javax.annotation.Nullable;
+import java.util.function.Supplier;
+
+/**
+ * A reusable status used to report parse failures without throwing exceptions.<br>
+ * The exception describing a failure is only created when it is requested.
+ */
+public class ParseStatus {
+
+    private boolean failed;
+    private Exception exception;
+    private Supplier<ArgumentParseException> failure;
+    private long primitiveBits;
+
+    /**
+     * Reset this status so it can be used for the next parse.
+     */
+    public void reset() {
+        this.failed = false;
+        this.exception = null;
+        this.failure = null;
+        this.primitiveBits = 0;
+    }
+
+    /**
+     * Store a parsed primitive value without boxing it.<br>
+     * The returned marker is used in place of the boxed value, the bits can be retrieved using {@link #getPrimitiveBits()}.
+     *
+     * @param primitive The type of the value
+     * @param bits      The bits of the value (See {@link Primitive})
+     * @return The primitive marker
+     */
+    public Primitive primitive(final Primitive primitive, final long bits) {
+        this.primitiveBits = bits;
+        return primitive;
+    }
+
+    /**
+     * @return The bits of the last primitive value
+     */
+    public long getPrimitiveBits() {
+        return this.primitiveBits;
+    }
+
+    /**
+     * @return If the parse has failed
+     */
+    public boolean hasFailed() {
+        return this.failed;
+    }
+
+    /**
+     * Mark the parse as failed.<br>
+     * The exception is only created if it is requested.
+     *
+     * @param failure The supplier of the exception describing the failure
+     * @param <T>     The type of the parsed value
+     * @return Always {@code null}
+     */
+    @Nullable
+    public <T> T fail(final Supplier<ArgumentParseException> failure) {
+        this.failed = true;
+        this.exception = null;
+        this.failure = failure;
+        return null;
+    }
+
+    /**
+     * Mark the parse as failed with an already thrown exception.
+     *
+     * @param exception The exception describing the failure
+     * @param <T>       The type of the parsed value
+     * @return Always {@code null}
+     */
+    @Nullable
+    public <T> T fail(final ArgumentParseException exception) {
+        this.failed = true;
+        this.exception = exception;
+        this.failure = null;
+        return null;
+    }
+
+    /**
+     * Mark the parse as failed with an already thrown runtime exception.
+     *
+     * @param exception The exception describing the failure
+     * @param <T>       The type of the parsed value
+     * @return Always {@code null}
+     */
+    @Nullable
+    public <T> T fail(final RuntimeException exception) {
+        this.failed = true;
+        this.exception = exception;
+        this.failure = null;
+        return null;
+    }
+
+    /**
+     * Get the cause of the failure.<br>
+     * This is either an {@link Exception} or a {@link Supplier} of an {@link ArgumentParseException} if the exception has not been created yet.
+     *
+     * @return The cause of the failure or {@code null} if the parse did not fail
+     */
+    @Nullable
+    public Object getCause() {
+        if (this.exception != null) return this.exception;
+        return this.failure;
+    }
+
+    /**
+     * Get the exception describing the failure.<br>
+     * If the exception has not been created yet it will be created now.
+     *
+     * @return The exception or {@code null} if the parse did not fail
+     */
+    @Nullable
+    public Exception getException() {
+        if (this.exception == null && this.failure != null) {
+            this.exception = this.failure.get();
+            this.failure = null;
+        }
+        return this.exception;
+    }
+
+    /**
+     * Return the given value if the parse did not fail or throw the exception describing the failure.
+     *
+     * @param value The parsed value
+     * @param <T>   The type of the parsed value
+     * @return The given value
+     * @throws ArgumentParseException If the parse failed with an argument parse exception
+     * @throws RuntimeException       If the parse failed with a runtime exception
+     */
+    public <T> T valueOrThrow(final T value) throws ArgumentParseException, RuntimeException {
+        if (!this.failed) return value;
+        Exception exception = this.getException();
+        if (exception instanceof RuntimeException) throw (RuntimeException) exception;
+        throw (ArgumentParseException) exception;
+    }
+
+}
@@ -0,0 +1,95 @@
+package net.lenni0451.commandlib.utils;
+
+/**
+ * The primitive types which can be parsed and stored without boxing them.<br>
+ * Primitive values are passed around as {@code long} bits. Float and double values are stored as their raw bits.<br>
+ * The constants are also used as markers in places which store objects, the bits are then stored separately.
+ */
+public enum Primitive {
+
+    INT {
+        @Override
+        public Object box(final long bits) {
+            return (int) bits;
+        }
+
+        @Override
+        public long unbox(final Object value) {
+            return (Integer) value;
+        }
+    },
+    LONG {
+        @Override
+        public Object box(final long bits) {
+            return bits;
+        }
+
+        @Override
+        public long unbox(final Object value) {
+            return (Long) value;
+        }
+    },
+    FLOAT {
+        @Override
+        public Object box(final long bits) {
+            return Float.intBitsToFloat((int) bits);
+        }
+
+        @Override
+        public long unbox(final Object value) {
+            return Float.floatToRawIntBits((Float) value);
+        }
+    },
+    DOUBLE {
+        @Override
+        public Object box(final long bits) {
+            return Double.longBitsToDouble(bits);
+        }
+
+        @Override
+        public long unbox(final Object value) {
+            return Double.doubleToRawLongBits((Double) value);
+        }
+    },
+    BOOLEAN {
+        @Override
+        public Object box(final long bits) {
+            return bits != 0;
+        }
+
+        @Override
+        public long unbox(final Object value) {
+            return (Boolean) value ? 1 : 0;
+        }
+    };
+
+    /**
+     * Box the value of the given bits.
+     *
+     * @param bits The bits of the value
+     * @return The boxed value
+     */
+    public abstract Object box(final long bits);
+
+    /**
+     * Get the bits of the given boxed value.
+     *
+     * @param value The boxed value
+     * @return The bits of the value
+     * @throws ClassCastException If the value is not of this primitive type
+     */
+    public abstract long unbox(final Object value);
+
+    /**
+     * Box the given value if it is a primitive marker.
+     *
+     * @param value The value or a primitive marker
+     * @param bits  The bits of the value if it is a primitive marker
+     * @return The boxed value or the given value if it is not a primitive marker
+     */
+    public static Object box(final Object value, final long bits) {
+        if (value instanceof Primitive) return ((Primitive) value).box(bits);
+        return value;
+    }
+
+}
@@ -1,30 +1,123 @@
 package net.lenni0451.commandlib.utils;
 
+import net.lenni0451.commandlib.exceptions.ArgumentParseException;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.util.Arrays;
-import java.util.regex.Pattern;
 
 /**
- * A simple string reader used for parsing arguments.
+ * A simple string reader used for parsing arguments.<br>
+ * The input can be any character sequence, a part of a char array or UTF-8 encoded bytes.<br>
+ * The {@code ...View} methods return {@link StringView}s of the input, so no string is created until it is actually needed.<br>
+ * When words or strings are read more than once, the boundaries of all words are indexed in a single pass over the input.
+ * The same word read by multiple arguments is then not scanned again.
  */
 public class StringReader {
 
-    private static final Pattern STRING_ESCAPE_REPLACEMENT = Pattern.compile("\\\\(.)");
+    /**
+     * The powers of ten which can be represented exactly as float.
+     */
+    private static final float[] FLOAT_POWERS_OF_TEN = {1e0F, 1e1F, 1e2F, 1e3F, 1e4F, 1e5F, 1e6F, 1e7F, 1e8F, 1e9F, 1e10F};
 
 
-    private final String string;
+    private CharSequence source;
+    private String string;
     private int cursor = 0;
+    /**
+     * The token index of the input, see {@link #tokens()}.<br>
+     * The array is kept when the reader is reset, only the first {@link #tokenCount} values belong to the current input.
+     */
+    private int[] tokens;
+    private int tokenCount;
+    private boolean tokenized;
 
     public StringReader(final String string) {
+        this.source = string;
         this.string = string;
     }
 
     /**
+     * Create a reader for the given character sequence.<br>
+     * The character sequence must not be modified while it is read.
+     *
+     * @param source The character sequence
+     */
+    public StringReader(final CharSequence source) {
+        this.source = source;
+    }
+
+    /**
+     * Create a reader for a part of the given char array.<br>
+     * The characters are not copied and must not be modified while they are read.
+     *
+     * @param chars  The char array
+     * @param offset The index of the first character
+     * @param length The amount of characters
+     * @throws IndexOutOfBoundsException If the part is out of the bounds of the array
+     */
+    public StringReader(final char[] chars, final int offset, final int length) {
+        this.source = CharBuffer.wrap(chars, offset, length).slice();
+    }
+
+    /**
+     * Create a reader for the remaining UTF-8 encoded bytes of the given buffer.<br>
+     * The bytes are only decoded when they are read, the position of the buffer is not changed.<br>
+     * The remaining bytes of the buffer must not be modified while they are read.
+     *
+     * @param utf8 The UTF-8 encoded bytes
+     */
+    public StringReader(final ByteBuffer utf8) {
+        this.source = new Utf8CharSequence(utf8);
+    }
+
+    /**
+     * Reset this reader to read the given input from the start.<br>
+     * The buffers of this reader are reused, so a single reader can read multiple inputs without allocating new buffers.
+     *
+     * @param source The new input
+     * @return The string reader
+     */
+    public StringReader reset(final CharSequence source) {
+        this.source = source;
+        this.string = source instanceof String ? (String) source : null;
+        this.cursor = 0;
+        this.tokenCount = 0;
+        this.tokenized = false;
+        return this;
+    }
+
+    /**
+     * @return The character sequence that is read
+     */
+    public CharSequence getSource() {
+        return this.source;
+    }
+
+    /**
+     * Get the string that is read.<br>
+     * If the reader was not created with a string, the whole input is copied into a new string once.
+     *
      * @return The string that is read
      */
     public String getString() {
+        if (this.string == null) this.string = this.source.toString();
         return this.string;
     }
 
+    /**
+     * Get a part of the input without moving the cursor.
+     *
+     * @param start The start index (inclusive)
+     * @param end   The end index (exclusive)
+     * @return The part of the input
+     * @throws StringIndexOutOfBoundsException If the indices are out of the bounds of the input
+     */
+    public String substring(final int start, final int end) {
+        if (this.string != null) return this.string.substring(start, end);
+        return new StringView(this.source, start, end).toString();
+    }
+
     /**
      * @return The current cursor position
      */
@@ -47,14 +140,14 @@ public class StringReader {
      * @return The length of the string
      */
     public int length() {
-        return this.string.length();
+        return this.source.length();
     }
 
     /**
      * @return The amount of remaining characters
      */
     public int remaining() {
-        return this.string.length() - this.cursor;
+        return this.source.length() - this.cursor;
     }
 
     /**
@@ -71,7 +164,7 @@ public class StringReader {
      * @return If the reader can read the given amount of characters
      */
     public boolean canRead(final int length) {
-        return this.cursor + length <= this.string.length();
+        return Utf8CharSequence.hasLength(this.source, this.cursor + length);
     }
 
     /**
@@ -117,14 +210,14 @@ public class StringReader {
      */
     public char peek(final int offset) {
         this.ensureLength(1 + offset);
-        return this.string.charAt(this.cursor + offset);
+        return this.source.charAt(this.cursor + offset);
     }
 
     /**
      * @return The remaining string without moving the cursor
      */
     public String peekRemaining() {
-        return this.string.substring(this.cursor);
+        return this.substring(this.cursor, this.length());
     }
 
     /**
@@ -192,7 +285,7 @@ public class StringReader {
      * @return The next character and move the cursor by one character
      */
     public char read() {
-        return this.string.charAt(this.cursor++);
+        return this.source.charAt(this.cursor++);
     }
 
     /**
@@ -206,7 +299,7 @@ public class StringReader {
         this.ensureLength(length);
         int start = this.cursor;
         this.cursor += length;
-        return this.string.substring(start, this.cursor);
+        return this.substring(start, this.cursor);
     }
 
     /**
@@ -220,6 +313,17 @@ public class StringReader {
         return this.readUntil(c, false);
     }
 
+    /**
+     * Read until the given character is found or the end of the string is reached.<br>
+     * The character will not be read.
+     *
+     * @param c The character
+     * @return A view of the read characters
+     */
+    public CharSequence readUntilView(final char c) {
+        return this.readUntilView(c, false);
+    }
+
     /**
      * Read until the given character is found or the end of the string is reached.<br>
      * The character will not be read.<br>
@@ -230,15 +334,35 @@ public class StringReader {
      * @return The read characters
      */
     public String readUntil(final char c, final boolean allowEscape) {
+        return this.readUntilView(c, allowEscape).toString();
+    }
+
+    /**
+     * Read until the given character is found or the end of the string is reached.<br>
+     * The character will not be read.<br>
+     * If the given character is escaped using a backslash, it will be ignored. The backslash will be removed.<br>
+     * Only if the read characters contain a backslash a new string is created.
+     *
+     * @param c           The character
+     * @param allowEscape Whether to allow escaping
+     * @return A view of the read characters
+     */
+    public CharSequence readUntilView(final char c, final boolean allowEscape) {
         int start = this.cursor;
+        if (c == ' ' && !allowEscape) {
+            this.cursor = this.wordEnd(start);
+            return new StringView(this.source, start, this.cursor);
+        }
+        boolean escaped = false;
         while (this.canRead()) {
             if (this.peek() == c) break;
-            if (allowEscape && this.peek() == '\\') this.cursor++;
+            if (allowEscape && this.peek() == '\\') {
+                escaped = true;
+                this.cursor++;
+            }
             this.cursor++;
         }
-        String s = this.string.substring(start, this.cursor);
-        if (allowEscape) s = STRING_ESCAPE_REPLACEMENT.matcher(s).replaceAll("$1");
-        return s;
+        return this.token(start, escaped);
     }
 
     /**
@@ -251,15 +375,31 @@ public class StringReader {
      * @return The read characters
      */
     public String readUntil(final boolean allowEscape, final char... cs) {
+        return this.readUntilView(allowEscape, cs).toString();
+    }
+
+    /**
+     * Read until a character in the given array is found or the end of the string is reached.<br>
+     * The character will not be read.<br>
+     * If the given character is escaped using a backslash, it will be ignored. The backslash will be removed.<br>
+     * Only if the read characters contain a backslash a new string is created.
+     *
+     * @param allowEscape Whether to allow escaping
+     * @param cs          The array of characters
+     * @return A view of the read characters
+     */
+    public CharSequence readUntilView(final boolean allowEscape, final char... cs) {
         int start = this.cursor;
+        boolean escaped = false;
         while (this.canRead()) {
             if (Util.contains(this.peek(), cs)) break;
-            if (allowEscape && this.peek() == '\\') this.cursor++;
+            if (allowEscape && this.peek() == '\\') {
+                escaped = true;
+                this.cursor++;
+            }
             this.cursor++;
         }
-        String s = this.string.substring(start, this.cursor);
-        if (allowEscape) s = STRING_ESCAPE_REPLACEMENT.matcher(s).replaceAll("$1");
-        return s;
+        return this.token(start, escaped);
     }
 
     /**
@@ -278,6 +418,15 @@ public class StringReader {
         return this.readUntil(' ');
     }
 
+    /**
+     * Read a word until the next whitespace character is found.
+     *
+     * @return A view of the next word
+     */
+    public CharSequence readWordView() {
+        return this.readUntilView(' ');
+    }
+
     /**
      * Read a string starting with a single or double quote.<br>
      * The quotes will be removed.
@@ -286,8 +435,28 @@ public class StringReader {
      * @throws IllegalStateException If the end of the string is reached without finding a closing quote
      */
     public String readString() {
+        return this.readStringView().toString();
+    }
+
+    /**
+     * Read a string starting with a single or double quote.<br>
+     * The quotes will be removed.
+     *
+     * @return A view of the read string
+     * @throws IllegalStateException If the end of the string is reached without finding a closing quote
+     */
+    public CharSequence readStringView() {
         char start = this.require('"', '\'').read();
-        String s = this.readUntil(start, true);
+        int end = this.stringEnd(this.cursor - 1);
+        if (end > 0) {
+            //The closing quote is known, so the string does not have to be scanned again
+            int from = this.cursor;
+            this.cursor = (end >>> 1) - 1;
+            CharSequence s = this.token(from, (end & 1) != 0);
+            this.cursor++;
+            return s;
+        }
+        CharSequence s = this.readUntilView(start, true);
         this.require(start).skip();
         return s;
     }
@@ -299,8 +468,18 @@ public class StringReader {
      * @throws IllegalStateException If the end of the string is reached without finding a closing quote (if a string is read)
      */
     public String readWordOrString() {
-        if (this.peek() == '"' || this.peek() == '\'') return this.readString();
-        return this.readWord();
+        return this.readWordOrStringView().toString();
+    }
+
+    /**
+     * Read a word or a string if the next character is a single or double quote.
+     *
+     * @return A view of the read word or string
+     * @throws IllegalStateException If the end of the string is reached without finding a closing quote (if a string is read)
+     */
+    public CharSequence readWordOrStringView() {
+        if (this.peek() == '"' || this.peek() == '\'') return this.readStringView();
+        return this.readWordView();
     }
 
     /**
@@ -325,4 +504,210 @@ public class StringReader {
         return s.replace(',', '.');
     }
 
+    /**
+     * Read a word and parse it as an integer number ({@code [+-]?\d+}).<br>
+     * The word is parsed in place without creating a string or throwing an exception.<br>
+     * If the word is not an integer number or does not fit into an int, the status is marked as failed.
+     *
+     * @param status The status used to report a failure
+     * @return The parsed integer number or {@code 0} if the word could not be parsed
+     */
+    public int readInt(final ParseStatus status) {
+        int start = this.cursor;
+        this.skipWord();
+        int end = this.cursor;
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (this.source.charAt(i) == '+' || this.source.charAt(i) == '-')) negative = this.source.charAt(i++) == '-';
+        if (i == end) return this.failNumber(status, "integer", start, end);
+        //Accumulate negatively like Integer#parseInt, so Integer.MIN_VALUE can be parsed
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int result = 0;
+        for (; i < end; i++) {
+            int digit = this.source.charAt(i) - '0';
+            if (digit < 0 || digit > 9) return this.failNumber(status, "integer", start, end);
+            if (result < limit / 10) return this.failNumber(status, "integer", start, end);
+            result *= 10;
+            if (result < limit + digit) return this.failNumber(status, "integer", start, end);
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Read a word and parse it as a long number ({@code [+-]?\d+}).<br>
+     * The word is parsed in place without creating a string or throwing an exception.<br>
+     * If the word is not an integer number or does not fit into a long, the status is marked as failed.
+     *
+     * @param status The status used to report a failure
+     * @return The parsed long number or {@code 0} if the word could not be parsed
+     */
+    public long readLong(final ParseStatus status) {
+        int start = this.cursor;
+        this.skipWord();
+        int end = this.cursor;
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (this.source.charAt(i) == '+' || this.source.charAt(i) == '-')) negative = this.source.charAt(i++) == '-';
+        if (i == end) return this.failNumber(status, "long", start, end);
+        //Accumulate negatively like Long#parseLong, so Long.MIN_VALUE can be parsed
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = this.source.charAt(i) - '0';
+            if (digit < 0 || digit > 9) return this.failNumber(status, "long", start, end);
+            if (result < limit / 10) return this.failNumber(status, "long", start, end);
+            result *= 10;
+            if (result < limit + digit) return this.failNumber(status, "long", start, end);
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Read a word and parse it as a decimal number ({@code [+-]?(\d+(\.\d*)?|\d*\.\d+)}).<br>
+     * The word is parsed in place without creating a string or throwing an exception.<br>
+     * Only numbers which can not be converted exactly using their digits (more than 7 significant digits or 10 decimal places) are parsed using {@link Float#parseFloat(String)}.<br>
+     * If the word is not a decimal number or is too big for a float, the status is marked as failed.
+     *
+     * @param status The status used to report a failure
+     * @return The parsed decimal number or {@code 0} if the word could not be parsed
+     */
+    public float readFloat(final ParseStatus status) {
+        int start = this.cursor;
+        this.skipWord();
+        int end = this.cursor;
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (this.source.charAt(i) == '+' || this.source.charAt(i) == '-')) negative = this.source.charAt(i++) == '-';
+        long mantissa = 0;
+        int scale = 0;
+        int digits = 0;
+        boolean point = false;
+        boolean exact = true;
+        for (; i < end; i++) {
+            char c = this.source.charAt(i);
+            if (c == '.' && !point) {
+                point = true;
+                continue;
+            }
+            if (c < '0' || c > '9') return this.failNumber(status, "decimal number", start, end);
+            digits++;
+            if (mantissa >= 1L << 24) {
+                exact = false;
+                continue;
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            if (point) scale++;
+        }
+        if (digits == 0) return this.failNumber(status, "decimal number", start, end);
+
+        float result;
+        if (exact && mantissa <= 1L << 24 && scale < FLOAT_POWERS_OF_TEN.length) {
+            //Both values are exact, so the division is rounded correctly like Float#parseFloat
+            result = (float) mantissa / FLOAT_POWERS_OF_TEN[scale];
+            if (negative) result = -result;
+        } else {
+            result = Float.parseFloat(this.substring(start, end));
+        }
+        if (Float.isInfinite(result)) return this.failNumber(status, "decimal number", start, end);
+        return result;
+    }
+
+    private void skipWord() {
+        this.cursor = this.wordEnd(this.cursor);
+    }
+
+    /**
+     * Get the token index of the input.<br>
+     * The index is only built when tokens are read for the second time, so readers which only read a single token do not index the whole input.<br>
+     * {@code tokens[2 * i]} is the end of the word starting at {@code i} (the index of the next space or the length of the input).<br>
+     * {@code tokens[2 * i + 1]} describes the quoted string starting at {@code i}. It is computed when the string is read for the first time:<br>
+     * {@code 0} if it has not been read yet, {@code -1} if it has no closing quote,
+     * otherwise {@code (closingQuote + 1) << 1} with the lowest bit set if the string contains escaped characters.
+     *
+     * @return The token index or {@code null} if it has not been built yet
+     */
+    private int[] tokens() {
+        if (this.tokenCount == 0) {
+            if (!this.tokenized) {
+                this.tokenized = true;
+                return null;
+            }
+            int length = this.source.length();
+            int tokenCount = (length + 1) << 1;
+            if (this.tokens == null || this.tokens.length < tokenCount) this.tokens = new int[tokenCount];
+            int[] tokens = this.tokens;
+            int next = length;
+            tokens[length << 1] = length;
+            tokens[(length << 1) + 1] = 0;
+            for (int i = length - 1; i >= 0; i--) {
+                if (this.source.charAt(i) == ' ') next = i;
+                tokens[i << 1] = next;
+                tokens[(i << 1) + 1] = 0;
+            }
+            this.tokenCount = tokenCount;
+        }
+        return this.tokens;
+    }
+
+    private int wordEnd(final int start) {
+        int[] tokens = this.tokens();
+        if (tokens != null && start >= 0 && (start << 1) < this.tokenCount) return tokens[start << 1];
+        int end = start;
+        while (Utf8CharSequence.hasLength(this.source, end + 1) && this.source.charAt(end) != ' ') end++;
+        return end;
+    }
+
+    private int stringEnd(final int quote) {
+        int[] tokens = this.tokens();
+        if (tokens == null) return 0;
+        int end = tokens[(quote << 1) + 1];
+        if (end != 0) return end;
+
+        char c = this.source.charAt(quote);
+        int length = this.tokenCount >>> 1;
+        boolean escaped = false;
+        end = -1;
+        for (int i = quote + 1; i < length - 1; i++) {
+            char current = this.source.charAt(i);
+            if (current == c) {
+                end = ((i + 1) << 1) | (escaped ? 1 : 0);
+                break;
+            }
+            if (current == '\\') {
+                escaped = true;
+                i++;
+            }
+        }
+        tokens[(quote << 1) + 1] = end;
+        return end;
+    }
+
+    private int failNumber(final ParseStatus status, final String expected, final int start, final int end) {
+        CharSequence source = this.source;
+        status.fail(() -> ArgumentParseException.reason("Expected " + expected + " but got '" + new StringView(source, start, end) + "'"));
+        return 0;
+    }
+
+    private CharSequence token(final int start, final boolean escaped) {
+        if (!escaped) return new StringView(this.source, start, this.cursor);
+
+        //Same as replacing "\\\\(.)" with "$1", a backslash followed by a line terminator is kept
+        StringBuilder out = new StringBuilder(this.cursor - start);
+        for (int i = start; i < this.cursor; i++) {
+            char c = this.source.charAt(i);
+            if (c == '\\' && i + 1 < this.cursor && !isLineTerminator(this.source.charAt(i + 1))) c = this.source.charAt(++i);
+            out.append(c);
+        }
+        return out.toString();
+    }
+
+    private static boolean isLineTerminator(final char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
 }
@@ -0,0 +1,107 @@
+package net.lenni0451.commandlib.utils;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A view of a part of a character sequence which does not copy the characters.<br>
+ * The string of the view is only created when {@link #toString()} is called for the first time.
+ */
+public final class StringView implements CharSequence {
+
+    private final CharSequence source;
+    private final int start;
+    private final int end;
+    private String string;
+
+    /**
+     * @param source The viewed character sequence
+     * @param start  The start index (inclusive)
+     * @param end    The end index (exclusive)
+     * @throws StringIndexOutOfBoundsException If the indices are out of the bounds of the character sequence
+     */
+    public StringView(final CharSequence source, final int start, final int end) {
+        if (start < 0 || start > end || !Utf8CharSequence.hasLength(source, end)) {
+            throw new StringIndexOutOfBoundsException("begin " + start + ", end " + end + ", length " + source.length());
+        }
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @return The viewed character sequence
+     */
+    public CharSequence getSource() {
+        return this.source;
+    }
+
+    /**
+     * @return The start index in the viewed character sequence
+     */
+    public int getStart() {
+        return this.start;
+    }
+
+    /**
+     * @return The end index in the viewed character sequence
+     */
+    public int getEnd() {
+        return this.end;
+    }
+
+    @Override
+    public int length() {
+        return this.end - this.start;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || index >= this.length()) throw new StringIndexOutOfBoundsException("index " + index + ", length " + this.length());
+        return this.source.charAt(this.start + index);
+    }
+
+    @Nonnull
+    @Override
+    public StringView subSequence(final int start, final int end) {
+        if (start < 0 || end > this.length() || start > end) {
+            throw new StringIndexOutOfBoundsException("begin " + start + ", end " + end + ", length " + this.length());
+        }
+        return new StringView(this.source, this.start + start, this.start + end);
+    }
+
+    /**
+     * Check if this view contains the same characters as the given string without creating a string of this view.
+     *
+     * @param s          The string to compare with
+     * @param ignoreCase If the case should be ignored (See {@link String#equalsIgnoreCase(String)})
+     * @return If the characters are equal
+     */
+    public boolean contentEquals(final String s, final boolean ignoreCase) {
+        if (s.length() != this.length()) return false;
+        if (this.source instanceof String) return ((String) this.source).regionMatches(ignoreCase, this.start, s, 0, s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c1 = this.source.charAt(this.start + i);
+            char c2 = s.charAt(i);
+            if (c1 == c2) continue;
+            if (!ignoreCase) return false;
+            //Same comparison as String#regionMatches
+            char u1 = Character.toUpperCase(c1);
+            char u2 = Character.toUpperCase(c2);
+            if (u1 != u2 && Character.toLowerCase(u1) != Character.toLowerCase(u2)) return false;
+        }
+        return true;
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+        String string = this.string;
+        if (string == null) {
+            if (this.source instanceof String) string = ((String) this.source).substring(this.start, this.end);
+            else string = new StringBuilder(this.length()).append(this.source, this.start, this.end).toString();
+            this.string = string;
+        }
+        return string;
+    }
+
+}
@@ -0,0 +1,99 @@
+package net.lenni0451.commandlib.utils;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A character sequence of UTF-8 encoded bytes which are decoded when the characters are accessed.<br>
+ * Malformed input is replaced with {@code U+FFFD} like {@link String#String(byte[], java.nio.charset.Charset)} does.
+ */
+final class Utf8CharSequence implements CharSequence {
+
+    private static final int CHUNK_SIZE = 64;
+
+    /**
+     * Check if the given character sequence has at least the given length.<br>
+     * UTF-8 sequences are only decoded as far as required.
+     *
+     * @param sequence The character sequence
+     * @param length   The minimum length
+     * @return If the character sequence is long enough
+     */
+    static boolean hasLength(final CharSequence sequence, final int length) {
+        if (sequence instanceof Utf8CharSequence) return ((Utf8CharSequence) sequence).isAvailable(length);
+        return length <= sequence.length();
+    }
+
+
+    private final ByteBuffer bytes;
+    private final CharsetDecoder decoder;
+    private final CharBuffer chars;
+    private boolean complete;
+    private String string;
+
+    Utf8CharSequence(final ByteBuffer bytes) {
+        this.bytes = bytes.duplicate();
+        this.decoder = StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        //UTF-8 never decodes to more chars than bytes
+        this.chars = CharBuffer.allocate(this.bytes.remaining());
+        this.chars.limit(0);
+    }
+
+    /**
+     * Check if the given amount of characters is available without decoding the remaining bytes.
+     *
+     * @param length The amount of characters
+     * @return If the characters are available
+     */
+    boolean isAvailable(final int length) {
+        if (length > this.chars.position()) this.decode(length);
+        return length <= this.chars.position();
+    }
+
+    private void decode(final int length) {
+        while (!this.complete && this.chars.position() < length) {
+            this.chars.limit(Math.min(this.chars.capacity(), Math.max(length, this.chars.position() + CHUNK_SIZE)));
+            CoderResult result = this.decoder.decode(this.bytes, this.chars, true);
+            if (result.isUnderflow()) {
+                this.chars.limit(this.chars.capacity());
+                this.decoder.flush(this.chars);
+                this.complete = true;
+            }
+        }
+    }
+
+    @Override
+    public int length() {
+        this.decode(Integer.MAX_VALUE);
+        return this.chars.position();
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || !this.isAvailable(index + 1)) throw new StringIndexOutOfBoundsException("index " + index + ", length " + this.length());
+        return this.chars.get(index);
+    }
+
+    @Nonnull
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        return new StringView(this, start, end);
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+        String string = this.string;
+        if (string == null) {
+            string = new String(this.chars.array(), 0, this.length());
+            this.string = string;
+        }
+        return string;
+    }
+
+}
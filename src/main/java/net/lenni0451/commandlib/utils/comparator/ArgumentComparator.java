@@ -1,5 +1,7 @@
 package net.lenni0451.commandlib.utils.comparator;
 
+import net.lenni0451.commandlib.utils.StringView;
+
 /**
  * Used to compare strings in a case-sensitive or case-insensitive way.
  */
@@ -24,23 +26,43 @@ public abstract class ArgumentComparator {
             return a.equals(b);
         }
 
+        @Override
+        public boolean compare(CharSequence a, String b) {
+            if (a instanceof StringView) return ((StringView) a).contentEquals(b, false);
+            return b.contentEquals(a);
+        }
+
         @Override
         public int compareTo(String a, String b) {
             return a.compareTo(b);
         }
+
+        @Override
+        public boolean supportsFolding() {
+            return true;
+        }
+
+        @Override
+        public boolean supportsPrefixLookup() {
+            return true;
+        }
     };
     /**
-     * A case-insensitive comparator.
+     * A case-insensitive comparator.<br>
+     * Characters are compared like {@link String#equalsIgnoreCase(String)} without creating lower case copies of the strings.
      */
     public static final ArgumentComparator CASE_INSENSITIVE = new ArgumentComparator() {
         @Override
         public boolean startsWith(String s, String b) {
-            return s.toLowerCase().startsWith(b.toLowerCase());
+            return s.regionMatches(true, 0, b, 0, b.length());
         }
 
         @Override
         public boolean contains(String s, String b) {
-            return s.toLowerCase().contains(b.toLowerCase());
+            for (int i = 0, end = s.length() - b.length(); i <= end; i++) {
+                if (s.regionMatches(true, i, b, 0, b.length())) return true;
+            }
+            return false;
         }
 
         @Override
@@ -48,10 +70,39 @@ public abstract class ArgumentComparator {
             return a.equalsIgnoreCase(b);
         }
 
+        @Override
+        public boolean compare(CharSequence a, String b) {
+            if (a instanceof StringView) return ((StringView) a).contentEquals(b, true);
+            return this.compare(a.toString(), b);
+        }
+
         @Override
         public int compareTo(String a, String b) {
             return a.compareToIgnoreCase(b);
         }
+
+        @Override
+        public String fold(String s) {
+            char[] chars = null;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                char folded = Character.toLowerCase(Character.toUpperCase(c));
+                if (c == folded) continue;
+                if (chars == null) chars = s.toCharArray();
+                chars[i] = folded;
+            }
+            return chars == null ? s : new String(chars);
+        }
+
+        @Override
+        public boolean supportsFolding() {
+            return true;
+        }
+
+        @Override
+        public boolean supportsPrefixLookup() {
+            return true;
+        }
     };
 
 
@@ -82,6 +133,18 @@ public abstract class ArgumentComparator {
      */
     public abstract boolean compare(final String a, final String b);
 
+    /**
+     * Compare if a character sequence is equal to a string.<br>
+     * The built-in comparators compare {@link StringView}s without creating a string.
+     *
+     * @param a The character sequence
+     * @param b The string
+     * @return If the character sequence is equal to the string
+     */
+    public boolean compare(final CharSequence a, final String b) {
+        return this.compare(a.toString(), b);
+    }
+
     /**
      * Compare two strings.
      *
@@ -91,4 +154,40 @@ public abstract class ArgumentComparator {
      */
     public abstract int compareTo(final String a, final String b);
 
+    /**
+     * Fold the given string into a key which is equal for all strings this comparator considers equal.<br>
+     * This is used to look up registered commands without comparing every name.<br>
+     * Custom comparators which consider different strings equal should override this method and {@link #supportsFolding()}.
+     *
+     * @param s The string to fold
+     * @return The folded string
+     */
+    public String fold(final String s) {
+        return s;
+    }
+
+    /**
+     * Check if names can be looked up using the folded strings.<br>
+     * This requires {@link #compare(String, String)} to match exactly if the folded strings are equal.<br>
+     * Custom comparators are checked against every name unless they override this method.
+     *
+     * @return If names can be looked up using the folded strings
+     * @see #fold(String)
+     */
+    public boolean supportsFolding() {
+        return false;
+    }
+
+    /**
+     * Check if names starting with a prefix can be looked up using the folded strings.<br>
+     * This requires {@link #startsWith(String, String)} to match exactly if the folded string starts with the folded prefix.<br>
+     * Custom comparators are checked against every name unless they override this method.
+     *
+     * @return If prefixes can be looked up using the folded strings
+     * @see #fold(String)
+     */
+    public boolean supportsPrefixLookup() {
+        return false;
+    }
+
 }
@@ -1,8 +1,9 @@
 package net.lenni0451.commandlib.utils.comparator;
 
+import net.lenni0451.commandlib.ArgumentChain;
+import net.lenni0451.commandlib.ChainFailure;
 import net.lenni0451.commandlib.ParseResult;
 import net.lenni0451.commandlib.exceptions.ArgumentParseException;
-import net.lenni0451.commandlib.exceptions.ChainExecutionException;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -35,8 +36,7 @@ public class CloseChainsComparator {
         out.sort(CloseChainsComparator::sortReasonWeight);
         filterWeight(out);
         out.sort(((Comparator<ParseResult.FailedChain<E>>) CloseChainsComparator::sortExecutionProgress)
-                .thenComparing(CloseChainsComparator::sortChainLength)
-                .thenComparing(CloseChainsComparator::sortChainWeight));
+                .thenComparing(CloseChainsComparator::sortChainRanking));
         filterExecutionIndex(out);
         return out;
     }
@@ -46,7 +46,7 @@ public class CloseChainsComparator {
         Iterator<ParseResult.FailedChain<E>> it = list.iterator();
         while (it.hasNext()) {
             ParseResult.FailedChain<E> entry = it.next();
-            int weight = getReasonWeight(entry.getExecutionException());
+            int weight = getReasonWeight(entry.getFailure());
             if (lastWeight == -1) lastWeight = weight;
             else if (lastWeight != weight) it.remove();
         }
@@ -57,7 +57,7 @@ public class CloseChainsComparator {
         Iterator<ParseResult.FailedChain<E>> it = list.iterator();
         while (it.hasNext()) {
             ParseResult.FailedChain<E> entry = it.next();
-            int executionIndex = entry.getExecutionException().getExecutionIndex();
+            int executionIndex = entry.getFailure().getExecutionIndex();
             if (lastExecutionIndex == -1) lastExecutionIndex = executionIndex;
             else if (lastExecutionIndex != executionIndex) it.remove();
         }
@@ -65,29 +65,19 @@ public class CloseChainsComparator {
 
 
     private static <E> int sortReasonWeight(final ParseResult.FailedChain<E> c1, final ParseResult.FailedChain<E> c2) {
-        return Integer.compare(getReasonWeight(c2.getExecutionException()), getReasonWeight(c1.getExecutionException()));
+        return Integer.compare(getReasonWeight(c2.getFailure()), getReasonWeight(c1.getFailure()));
     }
 
-    private static <E> int sortChainLength(final ParseResult.FailedChain<E> c1, final ParseResult.FailedChain<E> c2) {
-        return Integer.compare(c2.getArgumentChain().getLength(), c1.getArgumentChain().getLength());
-    }
-
-    private static <E> int sortChainWeight(final ParseResult.FailedChain<E> c1, final ParseResult.FailedChain<E> c2) {
-        int[] weights1 = c1.getArgumentChain().getWeights();
-        int[] weights2 = c2.getArgumentChain().getWeights();
-        for (int i = 0; i < weights1.length; i++) {
-            if (weights1[i] > weights2[i]) return -1;
-            if (weights1[i] < weights2[i]) return 1;
-        }
-        return 0;
+    private static <E> int sortChainRanking(final ParseResult.FailedChain<E> c1, final ParseResult.FailedChain<E> c2) {
+        return ArgumentChain.compareRanking(c2.getArgumentChain(), c1.getArgumentChain());
     }
 
     private static <E> int sortExecutionProgress(final ParseResult.FailedChain<E> c1, final ParseResult.FailedChain<E> c2) {
-        return Integer.compare(c2.getExecutionException().getExecutionIndex(), c1.getExecutionException().getExecutionIndex());
+        return Integer.compare(c2.getFailure().getExecutionIndex(), c1.getFailure().getExecutionIndex());
     }
 
-    private static int getReasonWeight(final ChainExecutionException exception) {
-        switch (exception.getReason()) {
+    private static int getReasonWeight(final ChainFailure failure) {
+        switch (failure.getReason()) {
             case MISSING_SPACE:
             case NO_ARGUMENTS_LEFT:
                 return 4;
@@ -96,15 +86,16 @@ public class CloseChainsComparator {
             case ARGUMENT_PARSE_EXCEPTION:
                 return 2;
             case RUNTIME_EXCEPTION:
+            case REDIRECT_LIMIT_REACHED:
                 return 1;
             case REQUIREMENT_FAILED:
                 return 0;
             case HANDLED_OTHERWISE:
-                if (exception.getCause() instanceof ArgumentParseException) return 3;
-                else if (exception.getCause() instanceof RuntimeException) return 2;
+                if (failure.getCause() instanceof ArgumentParseException) return 3;
+                else if (failure.getCause() instanceof RuntimeException) return 2;
                 else return 0;
             default:
-                throw new IllegalStateException("Unexpected reason value '" + exception + "'");
+                throw new IllegalStateException("Unexpected reason value '" + failure.getReason() + "'");
         }
     }
 
@@ -4,25 +4,29 @@ import net.lenni0451.commandlib.Completion;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.List;
 
 /**
  * A comparator to sort command completions.<br>
- * Numbers are sorted first, then the rest is sorted by {@link Comparator#naturalOrder()}.
+ * Numbers are sorted first, then the rest is sorted by {@link Comparator#naturalOrder()}.<br>
+ * To sort many completions use {@link #sort(Collection)}, which classifies every completion only once.<br>
+ * Completions which are compared multiple times can be classified once using {@link #key(Completion)}.
  */
 public class CompletionsComparator implements Comparator<Completion> {
 
-    private static final Pattern INT_PATTERN = Pattern.compile("^[+-]?\\d+$");
-    private static final Pattern DECIMAL_PATTERN = Pattern.compile("^[+-]?(?:\\d+(\\.\\d*)?|\\d*\\.\\d+)$");
-    private static final Comparator<BigInteger> BIG_INTEGER_COMPARATOR = BigInteger::compareTo;
-    private static final Comparator<BigDecimal> BIG_DECIMAL_COMPARATOR = BigDecimal::compareTo;
+    private static final int NO_NUMBER = 0;
+    private static final int INT = 1;
+    private static final int DECIMAL = 2;
+    /**
+     * Integers with up to 18 digits always fit into a long.
+     */
+    private static final int MAX_LONG_DIGITS = 18;
 
 
-    private final Map<String, BigInteger> bigIntegerCache = new HashMap<>();
-    private final Map<String, BigDecimal> bigDecimalCache = new HashMap<>();
     private final ArgumentComparator argumentComparator;
 
     public CompletionsComparator(final ArgumentComparator argumentComparator) {
@@ -31,33 +35,123 @@ public class CompletionsComparator implements Comparator<Completion> {
 
     @Override
     public int compare(Completion c1, Completion c2) {
-        Integer result = this.compareNumber(c1.getCompletion(), c2.getCompletion());
-        if (result != null) return result;
-        return this.argumentComparator.compareTo(c1.getCompletion(), c2.getCompletion());
+        return this.compare(new SortKey(c1), new SortKey(c2));
     }
 
-    private Integer compareNumber(final String s1, final String s2) {
-        NumberType t1 = this.getNumberType(s1);
-        NumberType t2 = this.getNumberType(s2);
-        if (t1 == null || t2 == null) return null;
+    /**
+     * Sort the given completions.<br>
+     * The sort keys of all completions are computed before sorting, so the completions are not classified again for every comparison.<br>
+     * The result is the same as sorting the completions using this comparator.
+     *
+     * @param completions The completions to sort
+     * @return The sorted completions
+     */
+    public List<Completion> sort(final Collection<Completion> completions) {
+        SortKey[] keys = new SortKey[completions.size()];
+        int i = 0;
+        for (Completion completion : completions) keys[i++] = new SortKey(completion);
+        Arrays.sort(keys, this::compare);
+        List<Completion> sorted = new ArrayList<>(keys.length);
+        for (SortKey key : keys) sorted.add(key.completion);
+        return sorted;
+    }
+
+    /**
+     * Classify a completion for comparing it multiple times.<br>
+     * Comparing the sort keys using {@link #compare(SortKey, SortKey)} is the same as comparing the completions.
+     *
+     * @param completion The completion
+     * @return The sort key of the completion
+     */
+    public SortKey key(final Completion completion) {
+        return new SortKey(completion);
+    }
 
-        if (NumberType.INT.equals(t1) && NumberType.INT.equals(t2)) {
-            return BIG_INTEGER_COMPARATOR.compare(this.bigIntegerCache.computeIfAbsent(s1, BigInteger::new), this.bigIntegerCache.computeIfAbsent(s2, BigInteger::new));
-        } else {
-            return BIG_DECIMAL_COMPARATOR.compare(this.bigDecimalCache.computeIfAbsent(s1, BigDecimal::new), this.bigDecimalCache.computeIfAbsent(s2, BigDecimal::new));
+    /**
+     * Compare two classified completions.
+     *
+     * @param k1 The first sort key
+     * @param k2 The second sort key
+     * @return The comparison result
+     * @see #key(Completion)
+     */
+    public int compare(final SortKey k1, final SortKey k2) {
+        if (k1.numberType == NO_NUMBER || k2.numberType == NO_NUMBER) {
+            return this.argumentComparator.compareTo(k1.completion.getCompletion(), k2.completion.getCompletion());
+        }
+        if (k1.numberType == INT && k2.numberType == INT) {
+            if (k1.fitsLong && k2.fitsLong) return Long.compare(k1.longValue, k2.longValue);
+            return k1.getBigInteger().compareTo(k2.getBigInteger());
         }
+        return k1.getBigDecimal().compareTo(k2.getBigDecimal());
     }
 
-    private NumberType getNumberType(final String number) {
-        if (INT_PATTERN.matcher(number).matches()) return NumberType.INT;
-        if (DECIMAL_PATTERN.matcher(number).matches()) return NumberType.DECIMAL;
-        return null;
+    /**
+     * Get the number type of the given string.<br>
+     * Integers have an optional sign followed by digits. Decimals additionally contain a dot with digits on at least one side.
+     */
+    private static int getNumberType(final String s) {
+        int length = s.length();
+        int i = 0;
+        if (i < length && (s.charAt(i) == '+' || s.charAt(i) == '-')) i++;
+        int intStart = i;
+        while (i < length && isDigit(s.charAt(i))) i++;
+        int intDigits = i - intStart;
+        if (i == length) return intDigits > 0 ? INT : NO_NUMBER;
+        if (s.charAt(i++) != '.') return NO_NUMBER;
+        int fractionStart = i;
+        while (i < length && isDigit(s.charAt(i))) i++;
+        if (i != length) return NO_NUMBER;
+        return intDigits > 0 || i > fractionStart ? DECIMAL : NO_NUMBER;
     }
 
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+
+    /**
+     * The classified completion used for comparing.<br>
+     * Small integers are compared as long, big numbers are only parsed once when they are compared the first time.
+     */
+    public static class SortKey {
+        private final Completion completion;
+        private final int numberType;
+        private final boolean fitsLong;
+        private final long longValue;
+        private BigInteger bigInteger;
+        private BigDecimal bigDecimal;
 
-    private enum NumberType {
-        INT,
-        DECIMAL
+        private SortKey(final Completion completion) {
+            String s = completion.getCompletion();
+            this.completion = completion;
+            this.numberType = getNumberType(s);
+            if (this.numberType == INT) {
+                int start = s.charAt(0) == '+' || s.charAt(0) == '-' ? 1 : 0;
+                this.fitsLong = s.length() - start <= MAX_LONG_DIGITS;
+                this.longValue = this.fitsLong ? Long.parseLong(s) : 0;
+            } else {
+                this.fitsLong = false;
+                this.longValue = 0;
+            }
+        }
+
+        /**
+         * @return The classified completion
+         */
+        public Completion getCompletion() {
+            return this.completion;
+        }
+
+        private BigInteger getBigInteger() {
+            if (this.bigInteger == null) this.bigInteger = new BigInteger(this.completion.getCompletion());
+            return this.bigInteger;
+        }
+
+        private BigDecimal getBigDecimal() {
+            if (this.bigDecimal == null) this.bigDecimal = new BigDecimal(this.completion.getCompletion());
+            return this.bigDecimal;
+        }
     }
 
 }
@@ -0,0 +1,27 @@
+package net.lenni0451.commandlib.utils.interfaces;
+
+import net.lenni0451.commandlib.contexts.ExecutionContext;
+import net.lenni0451.commandlib.utils.StringReader;
+
+import java.util.Collection;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A functional interface to allow supplying custom completions asynchronously (e.g. from a database).
+ *
+ * @param <E> The type of the executor
+ */
+@FunctionalInterface
+public interface AsyncCompletionsProvider<E> {
+
+    /**
+     * Start providing custom completions.<br>
+     * The execution context and the string reader are only owned by the provider, they can also be used after this method returned.
+     *
+     * @param executionContext The execution context
+     * @param stringReader     The string reader
+     * @return A stage completing with the completions
+     */
+    CompletionStage<? extends Collection<String>> provide(final ExecutionContext<E> executionContext, final StringReader stringReader);
+
+}
@@ -0,0 +1,98 @@
+import net.lenni0451.commandlib.CommandExecutor;
+import net.lenni0451.commandlib.builder.ArgumentBuilder;
+import net.lenni0451.commandlib.nodes.StringNode;
+import net.lenni0451.commandlib.types.IntegerType;
+import net.lenni0451.commandlib.types.StringType;
+import net.lenni0451.commandlib.utils.comparator.ArgumentComparator;
+
+import java.lang.management.ManagementFactory;
+
+public class CompletionsAllocationBenchmark implements ArgumentBuilder<ExampleExecutor> {
+
+    private static final String[] INPUTS = {"g", "gamemode ", "gamemode C", "give bob ", "cmd"};
+    private static final int WARMUP = 50_000;
+    private static final int ROUNDS = 20_000;
+    /**
+     * The case-insensitive comparator before the comparisons were done without copying the strings.
+     */
+    private static final ArgumentComparator LOWER_CASE_COPIES = new ArgumentComparator() {
+        @Override
+        public boolean startsWith(String s, String b) {
+            return s.toLowerCase().startsWith(b.toLowerCase());
+        }
+
+        @Override
+        public boolean contains(String s, String b) {
+            return s.toLowerCase().contains(b.toLowerCase());
+        }
+
+        @Override
+        public boolean compare(String a, String b) {
+            return a.equalsIgnoreCase(b);
+        }
+
+        @Override
+        public boolean compare(CharSequence a, String b) {
+            return ArgumentComparator.CASE_INSENSITIVE.compare(a, b);
+        }
+
+        @Override
+        public int compareTo(String a, String b) {
+            return a.compareToIgnoreCase(b);
+        }
+
+        @Override
+        public String fold(String s) {
+            return ArgumentComparator.CASE_INSENSITIVE.fold(s);
+        }
+
+        @Override
+        public boolean supportsFolding() {
+            return true;
+        }
+    };
+
+    public static void main(String[] args) {
+        new CompletionsAllocationBenchmark();
+    }
+
+    private final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public CompletionsAllocationBenchmark() {
+        CommandExecutor<ExampleExecutor> before = this.createExecutor(LOWER_CASE_COPIES);
+        CommandExecutor<ExampleExecutor> after = this.createExecutor(ArgumentComparator.CASE_INSENSITIVE);
+
+        ExampleExecutor executor = ExampleExecutor.INSTANCE;
+        for (String input : INPUTS) {
+            if (!before.completions(executor, input).equals(after.completions(executor, input))) throw new IllegalStateException("Different completions for '" + input + "'");
+            for (int i = 0; i < WARMUP; i++) {
+                before.completions(executor, input);
+                after.completions(executor, input);
+            }
+
+            long start = this.allocatedBytes();
+            for (int i = 0; i < ROUNDS; i++) before.completions(executor, input);
+            long withCopies = (this.allocatedBytes() - start) / ROUNDS;
+
+            start = this.allocatedBytes();
+            for (int i = 0; i < ROUNDS; i++) after.completions(executor, input);
+            long withoutCopies = (this.allocatedBytes() - start) / ROUNDS;
+            System.out.println("'" + input + "': " + withCopies + " B/completions before, " + withoutCopies + " B/completions after");
+        }
+    }
+
+    private CommandExecutor<ExampleExecutor> createExecutor(final ArgumentComparator argumentComparator) {
+        CommandExecutor<ExampleExecutor> commandExecutor = new CommandExecutor<>(argumentComparator);
+        commandExecutor.register(this.string("give").then(this.typed("player", StringType.word()).then(this.typed("item", StringType.word()).executes(() -> {}).then(this.typed("count", IntegerType.integer(1, 64)).executes(() -> {})))));
+        StringNode<ExampleExecutor> gamemode = this.string("gamemode");
+        for (String mode : new String[]{"survival", "creative", "adventure", "spectator"}) gamemode.then(this.string(mode).executes(() -> {}));
+        commandExecutor.register(gamemode);
+        for (int i = 0; i < 100; i++) commandExecutor.register(this.string("Command" + i).executes(() -> {}));
+        return commandExecutor;
+    }
+
+    private long allocatedBytes() {
+        return this.threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+}
@@ -0,0 +1,85 @@
+import net.lenni0451.commandlib.Completion;
+import net.lenni0451.commandlib.utils.comparator.ArgumentComparator;
+import net.lenni0451.commandlib.utils.comparator.CompletionsComparator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+public class CompletionsSortBenchmark {
+
+    private static final int COMPLETIONS = 10_000;
+    private static final int WARMUP = 20;
+    private static final int ROUNDS = 50;
+
+    public static void main(String[] args) {
+        Random random = new Random(0);
+        Set<Completion> completions = new HashSet<>();
+        while (completions.size() < COMPLETIONS) {
+            switch (random.nextInt(5)) {
+                case 0:
+                    completions.add(new Completion(0, String.valueOf(random.nextInt(100_000) - 50_000)));
+                    break;
+                case 1:
+                    completions.add(new Completion(0, String.valueOf(random.nextInt(10_000) / 100D)));
+                    break;
+                case 2:
+                    completions.add(new Completion(0, new BigInteger(80, random).toString()));
+                    break;
+                default:
+                    completions.add(new Completion(0, (random.nextBoolean() ? "Player" : "player") + random.nextInt(100_000)));
+                    break;
+            }
+        }
+
+        LegacyComparator legacy = new LegacyComparator(ArgumentComparator.CASE_INSENSITIVE);
+        CompletionsComparator comparator = new CompletionsComparator(ArgumentComparator.CASE_INSENSITIVE);
+        List<Completion> expected = completions.stream().sorted(new LegacyComparator(ArgumentComparator.CASE_INSENSITIVE)).collect(Collectors.toList());
+        if (!expected.equals(comparator.sort(completions))) throw new IllegalStateException("The sorted completions are different");
+
+        for (int i = 0; i < WARMUP; i++) {
+            completions.stream().sorted(new LegacyComparator(ArgumentComparator.CASE_INSENSITIVE)).collect(Collectors.toList());
+            new CompletionsComparator(ArgumentComparator.CASE_INSENSITIVE).sort(completions);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) completions.stream().sorted(new LegacyComparator(ArgumentComparator.CASE_INSENSITIVE)).collect(Collectors.toList());
+        long regex = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) new CompletionsComparator(ArgumentComparator.CASE_INSENSITIVE).sort(completions);
+        long keys = System.nanoTime() - start;
+        System.out.printf("Sorting %d completions: %.2f ms with regex per compare, %.2f ms with sort keys%n", COMPLETIONS, regex / 1_000_000D / ROUNDS, keys / 1_000_000D / ROUNDS);
+    }
+
+
+    /**
+     * The completions comparator before the sort keys were precomputed.
+     */
+    private static class LegacyComparator implements Comparator<Completion> {
+        private static final Pattern INT_PATTERN = Pattern.compile("^[+-]?\\d+$");
+        private static final Pattern DECIMAL_PATTERN = Pattern.compile("^[+-]?(?:\\d+(\\.\\d*)?|\\d*\\.\\d+)$");
+
+        private final Map<String, BigInteger> bigIntegerCache = new HashMap<>();
+        private final Map<String, BigDecimal> bigDecimalCache = new HashMap<>();
+        private final ArgumentComparator argumentComparator;
+
+        private LegacyComparator(final ArgumentComparator argumentComparator) {
+            this.argumentComparator = argumentComparator;
+        }
+
+        @Override
+        public int compare(Completion c1, Completion c2) {
+            String s1 = c1.getCompletion();
+            String s2 = c2.getCompletion();
+            boolean int1 = INT_PATTERN.matcher(s1).matches();
+            boolean int2 = INT_PATTERN.matcher(s2).matches();
+            boolean number1 = int1 || DECIMAL_PATTERN.matcher(s1).matches();
+            boolean number2 = int2 || DECIMAL_PATTERN.matcher(s2).matches();
+            if (!number1 || !number2) return this.argumentComparator.compareTo(s1, s2);
+            if (int1 && int2) return this.bigIntegerCache.computeIfAbsent(s1, BigInteger::new).compareTo(this.bigIntegerCache.computeIfAbsent(s2, BigInteger::new));
+            return this.bigDecimalCache.computeIfAbsent(s1, BigDecimal::new).compareTo(this.bigDecimalCache.computeIfAbsent(s2, BigDecimal::new));
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+import net.lenni0451.commandlib.CommandExecutor;
+import net.lenni0451.commandlib.ParseSession;
+import net.lenni0451.commandlib.builder.ArgumentBuilder;
+import net.lenni0451.commandlib.exceptions.CommandExecutionException;
+import net.lenni0451.commandlib.nodes.StringNode;
+import net.lenni0451.commandlib.types.FloatType;
+import net.lenni0451.commandlib.types.IntegerType;
+import net.lenni0451.commandlib.types.StringType;
+
+import java.lang.management.ManagementFactory;
+
+public class ExecuteAllocationBenchmark implements ArgumentBuilder<ExampleExecutor> {
+
+    private static final String[] COMMANDS = {"tp 1 2 3", "give bob stone 5", "gamemode creative"};
+    private static final int WARMUP = 200_000;
+    private static final int ROUNDS = 100_000;
+
+    public static void main(String[] args) throws CommandExecutionException {
+        new ExecuteAllocationBenchmark();
+    }
+
+    private final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public ExecuteAllocationBenchmark() throws CommandExecutionException {
+        CommandExecutor<ExampleExecutor> commandExecutor = new CommandExecutor<>();
+        commandExecutor.register(this.string("tp").then(this.typed("x", FloatType.create()).then(this.typed("y", FloatType.create()).then(this.typed("z", FloatType.create()).executes(() -> {})))));
+        commandExecutor.register(this.string("give").then(this.typed("player", StringType.word()).then(this.typed("item", StringType.word()).executes(() -> {}).then(this.typed("count", IntegerType.integer(1, 64)).executes(() -> {})))));
+        StringNode<ExampleExecutor> gamemode = this.string("gamemode");
+        for (String mode : new String[]{"survival", "creative", "adventure", "spectator"}) gamemode.then(this.string(mode).executes(() -> {}));
+        commandExecutor.register(gamemode);
+
+        ExampleExecutor executor = ExampleExecutor.INSTANCE;
+        ParseSession<ExampleExecutor> session = commandExecutor.createSession();
+        for (String command : COMMANDS) {
+            for (int i = 0; i < WARMUP; i++) {
+                commandExecutor.execute(executor, command);
+                commandExecutor.execute(session, executor, command);
+            }
+
+            long before = this.allocatedBytes();
+            for (int i = 0; i < ROUNDS; i++) commandExecutor.execute(executor, command);
+            long withoutSession = (this.allocatedBytes() - before) / ROUNDS;
+
+            before = this.allocatedBytes();
+            for (int i = 0; i < ROUNDS; i++) commandExecutor.execute(session, executor, command);
+            long withSession = (this.allocatedBytes() - before) / ROUNDS;
+            System.out.println(command + ": " + withoutSession + " B/execute, " + withSession + " B/execute with session");
+        }
+    }
+
+    private long allocatedBytes() {
+        return this.threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+}
@@ -0,0 +1,66 @@
+import net.lenni0451.commandlib.CommandExecutor;
+import net.lenni0451.commandlib.builder.ArgumentBuilder;
+import net.lenni0451.commandlib.nodes.ArgumentNode;
+import net.lenni0451.commandlib.nodes.StringNode;
+
+public class RegistrationBenchmark implements ArgumentBuilder<ExampleExecutor> {
+
+    private static final int WIDTH = 32;
+    private static final int DEPTH = 3;
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) {
+        new RegistrationBenchmark();
+    }
+
+    public RegistrationBenchmark() {
+        //Warmup
+        for (int i = 0; i < 5; i++) new CommandExecutor<ExampleExecutor>().register(this.buildTree());
+
+        long time = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            StringNode<ExampleExecutor> root = this.buildTree();
+            CommandExecutor<ExampleExecutor> commandExecutor = new CommandExecutor<>();
+            long start = System.nanoTime();
+            commandExecutor.register(root);
+            time += System.nanoTime() - start;
+        }
+        System.out.println("Registration time: " + (time / ROUNDS / 1_000_000D) + "ms");
+
+        StringNode<ExampleExecutor> root = this.buildTree();
+        CommandExecutor<ExampleExecutor> commandExecutor = new CommandExecutor<>();
+        long before = usedMemory();
+        commandExecutor.register(root);
+        long after = usedMemory();
+        System.out.println("Retained heap: " + ((after - before) / 1024) + "KiB");
+        System.out.println(commandExecutor.hashCode() + root.hashCode() == 0 ? "" : "Done");
+    }
+
+    private StringNode<ExampleExecutor> buildTree() {
+        StringNode<ExampleExecutor> root = this.string("perm");
+        this.addChildren(root, 0);
+        return root;
+    }
+
+    private void addChildren(final ArgumentNode<ExampleExecutor, ?> parent, final int depth) {
+        if (depth >= DEPTH) return;
+        for (int i = 0; i < WIDTH; i++) {
+            ArgumentNode<ExampleExecutor, ?> child = this.string("node" + depth + "_" + i).executes(() -> {});
+            this.addChildren(child, depth + 1);
+            parent.then(child);
+        }
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignored) {
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}